@@ -0,0 +1,107 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.Random;
+
+/**
+ * Benchmark for the Barnes-Hut tree of pairwise forces: Scaling from 100 to 20000 bodies.
+ * Compares with the exact sum over all pairs. Without box2D, thus it runs on the desktop without libGDX.
+ * Run its main method. In the benchmark sources, not shipped with the game.
+ */
+
+public class PairwiseForcesBenchmark {
+    static final int[] COUNTS = {100, 300, 1000, 3000, 10000, 20000};
+    static final int SAMPLES = 200;               // bodies for measuring the error and the exact sum
+
+    /**
+     * Run the benchmark and print the results.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        System.out.print(run(0.5f));
+    }
+
+    /**
+     * Measure the time per evaluation of all accelerations for random bodies in a disc.
+     * The time of the exact sum is extrapolated from some sample bodies.
+     *
+     * @param openingAngle float, of the Barnes-Hut tree
+     * @return String, a table of the results
+     */
+    public static String run(float openingAngle) {
+        StringBuilder report = new StringBuilder();
+        report.append("bodies   tree ms   exact ms   relative error\n");
+        Random random = new Random(1);
+        BarnesHutTree tree = new BarnesHutTree();
+        tree.openingAngle = openingAngle;
+        tree.softening = 2;
+        Vector2 acceleration = new Vector2();
+        Vector2 exactAcceleration = new Vector2();
+        for (int count : COUNTS) {
+            float[] x = new float[count];
+            float[] y = new float[count];
+            float[] m = new float[count];
+            for (int i = 0; i < count; i++) {
+                float r = 1000 * (float) Math.sqrt(random.nextFloat());
+                float phi = 6.2831855f * random.nextFloat();
+                x[i] = r * (float) Math.cos(phi);
+                y[i] = r * (float) Math.sin(phi);
+                m[i] = 0.5f + random.nextFloat();
+            }
+            int repetitions = Math.max(1, 20000 / count);
+            float sum = 0;
+            for (int warmUp = 0; warmUp < 3; warmUp++) {
+                sum += evaluate(tree, x, y, m, count, acceleration);
+            }
+            long start = System.nanoTime();
+            for (int k = 0; k < repetitions; k++) {
+                sum += evaluate(tree, x, y, m, count, acceleration);
+            }
+            float treeMillis = 1e-6f * (System.nanoTime() - start) / repetitions;
+            int samples = Math.min(SAMPLES, count);
+            double errorSquared = 0;
+            double normSquared = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < samples; i++) {
+                exactAcceleration.setZero();
+                tree.addExactAcceleration(exactAcceleration, x[i], y[i], count);
+                acceleration.setZero();
+                tree.addAcceleration(acceleration, x[i], y[i]);
+                errorSquared += acceleration.sub(exactAcceleration).len2();
+                normSquared += exactAcceleration.len2();
+            }
+            float exactMillis = 1e-6f * (System.nanoTime() - start) * count / samples;
+            report.append(String.format("%6d %9.3f %10.3f %16.5f\n", count, treeMillis, exactMillis,
+                                        Math.sqrt(errorSquared / normSquared)));
+            if (sum == 0.123f) {                     // keep the results alive
+                report.append(" ");
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Build the tree and get the accelerations of all bodies.
+     *
+     * @param tree BarnesHutTree
+     * @param x float[], x-coordinates of the bodies
+     * @param y float[], y-coordinates of the bodies
+     * @param m float[], masses of the bodies
+     * @param count int, number of bodies
+     * @param acceleration Vector2, for intermediate results
+     * @return float, sum of x-components, to keep the calculation
+     */
+    private static float evaluate(BarnesHutTree tree, float[] x, float[] y, float[] m, int count,
+                                  Vector2 acceleration) {
+        tree.build(x, y, m, count);
+        float sum = 0;
+        for (int i = 0; i < count; i++) {
+            acceleration.setZero();
+            tree.addAcceleration(acceleration, x[i], y[i]);
+            sum += acceleration.x;
+        }
+        return sum;
+    }
+}
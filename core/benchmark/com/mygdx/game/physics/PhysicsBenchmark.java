@@ -0,0 +1,408 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.mygdx.game.Images.Chain;
+import com.mygdx.game.utilities.Device;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * Benchmark for stepping physics without rendering: Piles of circles, circles on a chain,
+ * ragdolls with many joints and mostly sleeping worlds. The bodies are built with the builders of physics.
+ * Reports the time for building the bodies, the time per step and its phases as in Physics.advance:
+ * prepare (body followers), world (box2D step), finish (commands), read (setPhysicsData)
+ * and interpolate (updateGraphicsData). And the bytes allocated on the java heap per step, if the JVM tells it.
+ * Runs on the desktop without graphics: The GL context and the application are replaced by stubs doing nothing.
+ * Run its main method. The arguments are names of scenarios to run, default is all.
+ * In the benchmark sources, not shipped with the game. In the package of physics to measure the phases of a step.
+ */
+
+public class PhysicsBenchmark {
+    static final int WARM_UP_STEPS = 60;
+    static final int STEPS = 120;
+    static final float RADIUS = 5;                // of circles, pixels
+    static final String HEADER = "scenario     count  bodies  build ms   ns/step   prepare     world    finish      read"
+            + "  interpolate  bytes/step\n";
+    private static Method allocatedBytesMethod;
+    Device device;
+    Physics physics;
+    TextureRegion circleRegion, boxRegion;
+    long prepareNanos, worldNanos, finishNanos, readNanos, interpolateNanos;
+
+    /**
+     * A world to measure. Builds its bodies.
+     */
+    abstract static class Scenario {
+        String name;
+        int count;
+
+        /**
+         * Create a scenario.
+         *
+         * @param name String, for the report
+         * @param count int, number of bodies or ragdolls
+         */
+        Scenario(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        /**
+         * Build the bodies.
+         *
+         * @param benchmark PhysicsBenchmark, with physics
+         * @return int, number of bodies
+         */
+        abstract int build(PhysicsBenchmark benchmark);
+    }
+
+    /**
+     * Run the benchmark and print the results, each scenario when it is done.
+     *
+     * @param args String[], names of scenarios to run, all scenarios if empty
+     */
+    public static void main(String[] args) {
+        stubGraphics();
+        System.out.print(HEADER);
+        for (Scenario scenario : scenarios()) {
+            if (isSelected(scenario, args)) {
+                System.out.print(new PhysicsBenchmark().measure(scenario));
+            }
+        }
+    }
+
+    /**
+     * Replace the GL context, the application, graphics and input by stubs that do nothing.
+     * Integer results are 1, to pass checks of shader compilation. Loads the native libraries.
+     */
+    public static void stubGraphics() {
+        GdxNativesLoader.load();
+        InvocationHandler nothing = new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) {
+                if (arguments != null) {
+                    for (Object argument : arguments) {
+                        if ((argument instanceof IntBuffer) && ((IntBuffer) argument).remaining() > 0) {
+                            IntBuffer intBuffer = (IntBuffer) argument;
+                            intBuffer.put(intBuffer.position(), 1);
+                        }
+                    }
+                }
+                Class<?> type = method.getReturnType();
+                if (type == int.class) {
+                    return 1;
+                } else if (type == boolean.class) {
+                    return false;
+                } else if (type == float.class) {
+                    return 0f;
+                } else if (type == long.class) {
+                    return 0L;
+                } else if (type == String.class) {
+                    return "";
+                }
+                return null;
+            }
+        };
+        ClassLoader classLoader = PhysicsBenchmark.class.getClassLoader();
+        GL20 gl = (GL20) Proxy.newProxyInstance(classLoader, new Class<?>[]{GL20.class}, nothing);
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        Gdx.app = (Application) Proxy.newProxyInstance(classLoader, new Class<?>[]{Application.class}, nothing);
+        Gdx.graphics = (Graphics) Proxy.newProxyInstance(classLoader, new Class<?>[]{Graphics.class}, nothing);
+        Gdx.input = (Input) Proxy.newProxyInstance(classLoader, new Class<?>[]{Input.class}, nothing);
+    }
+
+    /**
+     * Get the scenarios.
+     *
+     * @return Scenario[]
+     */
+    static Scenario[] scenarios() {
+        return new Scenario[]{
+                new Scenario("pile", 1000) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildPile(count);
+                    }
+                },
+                new Scenario("pile", 5000) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildPile(count);
+                    }
+                },
+                new Scenario("pile", 20000) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildPile(count);
+                    }
+                },
+                new Scenario("chain", 1000) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildChain(count);
+                    }
+                },
+                new Scenario("ragdolls", 200) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildRagdolls(count);
+                    }
+                },
+                new Scenario("sleeping", 5000) {
+                    @Override
+                    int build(PhysicsBenchmark benchmark) {
+                        return benchmark.buildSleeping(count);
+                    }
+                }
+        };
+    }
+
+    /**
+     * Run scenarios and make a report. Call stubGraphics before if there is no application.
+     *
+     * @param names String[], names of scenarios to run, all scenarios if empty
+     * @return String, a table of the results
+     */
+    public static String run(String... names) {
+        StringBuilder report = new StringBuilder(HEADER);
+        for (Scenario scenario : scenarios()) {
+            if (isSelected(scenario, names)) {
+                report.append(new PhysicsBenchmark().measure(scenario));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Check if a scenario should run.
+     *
+     * @param scenario Scenario
+     * @param names String[], names of scenarios to run, all scenarios if empty
+     * @return boolean, true if the scenario runs
+     */
+    static boolean isSelected(Scenario scenario, String[] names) {
+        boolean selected = (names.length == 0);
+        for (String name : names) {
+            selected |= name.equals(scenario.name);
+        }
+        return selected;
+    }
+
+    /**
+     * Build the scenario in a new world and step it.
+     *
+     * @param scenario Scenario
+     * @return String, a line of the table of results
+     */
+    String measure(Scenario scenario) {
+        device = new Device();
+        physics = new Physics(device);
+        physics.createWorld(0, -300, true);
+        Texture texture = new Texture(new Pixmap(32, 32, Pixmap.Format.RGBA8888));
+        device.disposer.add(texture, "PhysicsBenchmark texture");
+        circleRegion = new TextureRegion(texture, 0, 0, (int) (2 * RADIUS), (int) (2 * RADIUS));
+        boxRegion = new TextureRegion(texture, 0, 0, 8, 24);
+        long start = System.nanoTime();
+        int bodies = scenario.build(this);
+        float buildMillis = 1e-6f * (System.nanoTime() - start);
+        for (int i = 0; i < WARM_UP_STEPS; i++) {
+            step();
+        }
+        prepareNanos = worldNanos = finishNanos = readNanos = interpolateNanos = 0;
+        long bytes = allocatedBytes();
+        for (int i = 0; i < STEPS; i++) {
+            step();
+        }
+        long allocated = (bytes < 0) ? -1 : (allocatedBytes() - bytes) / STEPS;
+        long total = prepareNanos + worldNanos + finishNanos + readNanos + interpolateNanos;
+        device.dispose();
+        return String.format("%-10s %7d %7d %9.1f %9d %9d %9d %9d %9d %12d %11d\n", scenario.name,
+                             scenario.count, bodies, buildMillis, total / STEPS, prepareNanos / STEPS,
+                             worldNanos / STEPS, finishNanos / STEPS, readNanos / STEPS,
+                             interpolateNanos / STEPS, allocated);
+    }
+
+    /**
+     * Make a time step as in Physics.advance, measuring the time of its phases.
+     */
+    void step() {
+        long time0 = System.nanoTime();
+        physics.prepareStep();
+        long time1 = System.nanoTime();
+        physics.stepWorld();
+        long time2 = System.nanoTime();
+        physics.finishStep();
+        long time3 = System.nanoTime();
+        physics.setPhysicsData();
+        long time4 = System.nanoTime();
+        physics.updateGraphicsData(0.5f);
+        long time5 = System.nanoTime();
+        prepareNanos += time1 - time0;
+        worldNanos += time2 - time1;
+        finishNanos += time3 - time2;
+        readNanos += time4 - time3;
+        interpolateNanos += time5 - time4;
+    }
+
+    /**
+     * Get the bytes allocated by the current thread on the java heap, if the JVM supports it.
+     *
+     * @return long, number of bytes, -1 if not available
+     */
+    static long allocatedBytes() {
+        try {
+            if (allocatedBytesMethod == null) {
+                allocatedBytesMethod = Class.forName("com.sun.management.ThreadMXBean")
+                        .getMethod("getThreadAllocatedBytes", long.class);
+            }
+            return (Long) allocatedBytesMethod.invoke(ManagementFactory.getThreadMXBean(),
+                                                      Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Build a static box with ground and walls.
+     *
+     * @param width float, inner width in pixels
+     * @param height float, inner height in pixels
+     */
+    void buildBox(float width, float height) {
+        physics.bodyBuilder.setPosition(0, 0);
+        physics.bodyBuilder.buildStaticBody(new Rectangle(-20, -20, width + 40, 20));
+        physics.bodyBuilder.buildStaticBody(new Rectangle(-20, 0, 20, height));
+        physics.bodyBuilder.buildStaticBody(new Rectangle(width, 0, 20, height));
+    }
+
+    /**
+     * Build a physical sprite with a circle, its lower left corner at given position.
+     *
+     * @param x float, in pixels
+     * @param y float, in pixels
+     * @return PhysicalSprite
+     */
+    PhysicalSprite buildCircle(float x, float y) {
+        PhysicalSprite sprite = physics.physicalSpriteBuilder.build(circleRegion, new Circle(RADIUS, RADIUS, RADIUS));
+        sprite.setPosition(x, y);
+        return sprite;
+    }
+
+    /**
+     * A pile of circles falling into a box, at most 25 rows.
+     *
+     * @param count int, number of circles
+     * @return int, number of bodies
+     */
+    int buildPile(int count) {
+        int columns = Math.max(100, count / 25);
+        float spacing = 2.2f * RADIUS;
+        buildBox(columns * spacing, (count / columns + 2) * spacing);
+        for (int i = 0; i < count; i++) {
+            buildCircle((i % columns) * spacing + 0.1f * (i % 7), (i / columns) * spacing + RADIUS);
+        }
+        return physics.world.getBodyCount();
+    }
+
+    /**
+     * Circles falling on a zigzag chain.
+     *
+     * @param count int, number of circles
+     * @return int, number of bodies
+     */
+    int buildChain(int count) {
+        int columns = 100;
+        float spacing = 2.2f * RADIUS;
+        float width = columns * spacing;
+        int points = 200;
+        float[] coordinates = new float[2 * points];
+        for (int i = 0; i < points; i++) {
+            coordinates[2 * i] = i * width / (points - 1);
+            coordinates[2 * i + 1] = (i % 2) * 3 * RADIUS;
+        }
+        buildBox(width, (count / columns + 2) * spacing);
+        physics.bodyBuilder.buildStaticBody(new Chain(coordinates));
+        for (int i = 0; i < count; i++) {
+            buildCircle((i % columns) * spacing, (i / columns) * spacing + 5 * RADIUS);
+        }
+        return physics.world.getBodyCount();
+    }
+
+    /**
+     * Ragdolls falling on the ground. Each has a chain of 8 boxes connected by revolute joints with limits.
+     *
+     * @param count int, number of ragdolls
+     * @return int, number of bodies
+     */
+    int buildRagdolls(int count) {
+        int columns = 40;
+        float spacing = 30;
+        int parts = 8;
+        float partHeight = boxRegion.getRegionHeight();
+        float partWidth = boxRegion.getRegionWidth();
+        buildBox(columns * spacing, (count / columns + 1) * parts * partHeight);
+        JointBuilder jointBuilder = physics.jointBuilder;
+        jointBuilder.setEnableLimit(true).setLowerAngle(-0.8f).setUpperAngle(0.8f)
+                .setLocalAnchorA(0.5f * partWidth, partHeight).setLocalAnchorB(0.5f * partWidth, 0);
+        Rectangle shape = new Rectangle(0, 0, partWidth, partHeight);
+        for (int i = 0; i < count; i++) {
+            float x = (i % columns) * spacing;
+            float y = (i / columns) * (parts + 1) * partHeight + 5;
+            PhysicalSprite previous = null;
+            for (int j = 0; j < parts; j++) {
+                PhysicalSprite part = physics.physicalSpriteBuilder.build(boxRegion, shape);
+                part.setPosition(x, y + j * partHeight);
+                if (previous != null) {
+                    jointBuilder.buildRevoluteJoint(previous, part);
+                }
+                previous = part;
+            }
+        }
+        return physics.world.getBodyCount();
+    }
+
+    /**
+     * A mostly sleeping world: Circles resting separately on floors, they fall asleep in the warm up.
+     * One percent of additional circles keep bouncing beside them.
+     *
+     * @param count int, number of resting circles
+     * @return int, number of bodies
+     */
+    int buildSleeping(int count) {
+        int columns = 500;
+        float spacing = 3 * RADIUS;
+        int rows = (count + columns - 1) / columns;
+        float floorHeight = 4 * RADIUS;
+        float floorWidth = columns * spacing;
+        int bouncing = count / 100;
+        buildBox(floorWidth + bouncing * spacing, (rows + 2) * floorHeight);
+        for (int row = 1; row < rows; row++) {
+            physics.bodyBuilder.buildStaticBody(new Rectangle(0, row * floorHeight - 2, floorWidth, 2));
+        }
+        physics.fixtureBuilder.setRestitution(0);
+        for (int i = 0; i < count; i++) {
+            buildCircle((i % columns) * spacing, (i / columns) * floorHeight);
+        }
+        physics.fixtureBuilder.setRestitution(1);
+        for (int i = 0; i < bouncing; i++) {
+            buildCircle(floorWidth + i * spacing, (rows + 1) * floorHeight);
+        }
+        physics.fixtureBuilder.reset();
+        return physics.world.getBodyCount();
+    }
+}
@@ -0,0 +1,296 @@
+package com.mygdx.game.Images;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.mygdx.game.utilities.TextureU;
+
+import java.util.Arrays;
+
+/**
+ * Signed distance fields of shapes in masks. The alpha byte of a pixel encodes its distance to the border:
+ * 127.5 on the border, larger inside, smaller outside, saturating at the spread distance (in pixels of the field).
+ * This is the encoding of distance field fonts. A small field, drawn with DistanceFieldDraw, gives
+ * crisp borders at any scale.
+ * Shape2D shapes give exact distances. Other masks are transformed with the 8-point sequential Euclidean
+ * distance transform (8SSEDT).
+ */
+
+public class DistanceField {
+    static private final int FAR = 1 << 14;
+
+    /**
+     * Encode a distance as a byte.
+     *
+     * @param distance float, positive inside, in pixels of the field
+     * @param spread   float, distance for the extreme values
+     * @return byte, as unsigned value between 0 and 255
+     */
+    static public byte encode(float distance, float spread) {
+        return (byte) MathUtils.clamp(Math.round(127.5f + 127.5f * distance / spread), 0, 255);
+    }
+
+    /**
+     * Create a distance field of a Shape2D shape. Only Circle, Rectangle, Polygon and Shape2DCollection
+     * (union of its shapes). The shape will be translated to fit into the field, with a border of the spread.
+     *
+     * @param shape  Shape2D
+     * @param scale  float, pixels of the field per unit of the shape, smaller than 1 for a small field
+     * @param spread float, saturation distance in pixels of the field
+     * @return Mask, with the distance field as alpha
+     */
+    static public Mask create(Shape2D shape, float scale, float spread) {
+        float border = (spread + 1) / scale;
+        Shape2DTranslate.adjustLeftBottom(shape, border, border);
+        int width = MathUtils.ceil((Shape2DLimits.maxXShape(shape) + border) * scale);
+        int height = MathUtils.ceil((Shape2DLimits.maxYShape(shape) + border) * scale);
+        Mask field = new Mask(width, height);
+        float[] distances = new float[width * height];
+        Arrays.fill(distances, -Float.MAX_VALUE);
+        addShape(distances, width, height, shape, scale);
+        for (int index = distances.length - 1; index >= 0; index--) {
+            field.alpha[index] = encode(distances[index] * scale, spread);
+        }
+        return field;
+    }
+
+    /**
+     * Create a distance field of a shape with a spread of 4 pixels.
+     *
+     * @param shape Shape2D
+     * @param scale float, pixels of the field per unit of the shape
+     * @return Mask, with the distance field as alpha
+     */
+    static public Mask create(Shape2D shape, float scale) {
+        return create(shape, scale, 4);
+    }
+
+    /**
+     * Unite the signed distances of a shape with the distances of the pixels.
+     *
+     * @param distances float[], of the pixels in units of the shape, rows with flipped y-axis as in masks
+     * @param width     int, of the field
+     * @param height    int, of the field
+     * @param shape     Shape2D
+     * @param scale     float, pixels of the field per unit of the shape
+     */
+    static private void addShape(float[] distances, int width, int height, Shape2D shape, float scale) {
+        if (shape instanceof Polygon) {
+            addPolygon(distances, width, height, ((Polygon) shape).getVertices(), scale);
+        } else if (shape instanceof Circle) {
+            Circle circle = (Circle) shape;
+            int index = 0;
+            for (int j = 0; j < height; j++) {
+                float dy = (height - j - 0.5f) / scale - circle.y;
+                for (int i = 0; i < width; i++) {
+                    float dx = (i + 0.5f) / scale - circle.x;
+                    distances[index] = Math.max(distances[index], circle.radius - (float) Math.sqrt(dx * dx + dy * dy));
+                    index++;
+                }
+            }
+        } else if (shape instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) shape;
+            float right = rectangle.x + rectangle.width;
+            float top = rectangle.y + rectangle.height;
+            addPolygon(distances, width, height, new float[]{rectangle.x, rectangle.y, right, rectangle.y,
+                    right, top, rectangle.x, top}, scale);
+        } else if (shape instanceof Shape2DCollection) {
+            Shape2DCollection shapes = (Shape2DCollection) shape;
+            for (Shape2D subShape : shapes.items) {
+                addShape(distances, width, height, subShape, scale);
+            }
+        }
+    }
+
+    /**
+     * Unite the signed distances of a polygon with the distances of the pixels.
+     * The inside follows the even-odd rule. Checks all edges for each pixel, distance fields are small.
+     *
+     * @param distances   float[], of the pixels in units of the shape
+     * @param width       int, of the field
+     * @param height      int, of the field
+     * @param coordinates float[], (x,y) pairs of the vertices
+     * @param scale       float, pixels of the field per unit of the shape
+     */
+    static private void addPolygon(float[] distances, int width, int height, float[] coordinates, float scale) {
+        int length = coordinates.length;
+        int index = 0;
+        for (int j = 0; j < height; j++) {
+            float y = (height - j - 0.5f) / scale;
+            for (int i = 0; i < width; i++) {
+                float x = (i + 0.5f) / scale;
+                float distanceSq = Float.MAX_VALUE;
+                boolean inside = false;
+                for (int k = 0; k < length; k += 2) {
+                    int l = (k + 2) % length;
+                    float ax = coordinates[k];
+                    float ay = coordinates[k + 1];
+                    float ex = coordinates[l] - ax;
+                    float ey = coordinates[l + 1] - ay;
+                    float px = x - ax;
+                    float py = y - ay;
+                    float lengthSq = ex * ex + ey * ey;
+                    float t = (lengthSq > 0) ? MathUtils.clamp((px * ex + py * ey) / lengthSq, 0f, 1f) : 0;
+                    float dx = px - t * ex;
+                    float dy = py - t * ey;
+                    distanceSq = Math.min(distanceSq, dx * dx + dy * dy);
+                    if (((ay <= y) != (ay + ey <= y)) && (px < ex * py / ey)) {
+                        inside = !inside;
+                    }
+                }
+                float distance = (float) Math.sqrt(distanceSq);
+                distances[index] = Math.max(distances[index], inside ? distance : -distance);
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Create a distance field of a mask with the 8SSEDT. Pixels with alpha of at least 128 are inside.
+     * The field may have a lower resolution.
+     *
+     * @param mask       Mask
+     * @param spread     float, saturation distance in pixels of the field
+     * @param downsample int, pixels of the mask per pixel of the field, 1 for the same size
+     * @return Mask, with the distance field as alpha
+     */
+    static public Mask create(Mask mask, float spread, int downsample) {
+        int width = mask.width;
+        int height = mask.height;
+        int length = width * height;
+        int[] insideX = new int[length];
+        int[] insideY = new int[length];
+        int[] outsideX = new int[length];
+        int[] outsideY = new int[length];
+        for (int index = 0; index < length; index++) {
+            boolean inside = (mask.alpha[index] & 255) >= 128;
+            // offsets to the nearest pixel of the other kind
+            insideX[index] = inside ? FAR : 0;
+            insideY[index] = inside ? FAR : 0;
+            outsideX[index] = inside ? 0 : FAR;
+            outsideY[index] = inside ? 0 : FAR;
+        }
+        transform(insideX, insideY, width, height);
+        transform(outsideX, outsideY, width, height);
+        int fieldWidth = (width + downsample - 1) / downsample;
+        int fieldHeight = (height + downsample - 1) / downsample;
+        Mask field = new Mask(fieldWidth, fieldHeight);
+        for (int j = 0; j < fieldHeight; j++) {
+            int maskJ = Math.min(height - 1, j * downsample + downsample / 2);
+            for (int i = 0; i < fieldWidth; i++) {
+                int index = maskJ * width + Math.min(width - 1, i * downsample + downsample / 2);
+                float distance;
+                if ((mask.alpha[index] & 255) >= 128) {
+                    distance = length(insideX[index], insideY[index]) - 0.5f;
+                } else {
+                    distance = 0.5f - length(outsideX[index], outsideY[index]);
+                }
+                field.alpha[j * fieldWidth + i] = encode(distance / downsample, spread);
+            }
+        }
+        return field;
+    }
+
+    /**
+     * Create a distance field of a mask of the same size, with a spread of 4 pixels.
+     *
+     * @param mask Mask
+     * @return Mask, with the distance field as alpha
+     */
+    static public Mask create(Mask mask) {
+        return create(mask, 4, 1);
+    }
+
+    /**
+     * Length of an offset.
+     *
+     * @param dx int
+     * @param dy int
+     * @return float
+     */
+    static private float length(int dx, int dy) {
+        return (float) Math.sqrt((float) dx * dx + (float) dy * dy);
+    }
+
+    /**
+     * The 8SSEDT: Propagate the offsets to the nearest seed pixel (offset zero)
+     * in a forward and a backward pass over the rows.
+     *
+     * @param offsetX int[], x-components of the offsets
+     * @param offsetY int[], y-components of the offsets
+     * @param width   int
+     * @param height  int
+     */
+    static private void transform(int[] offsetX, int[] offsetY, int width, int height) {
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                compare(offsetX, offsetY, width, height, i, j, -1, 0);
+                compare(offsetX, offsetY, width, height, i, j, 0, -1);
+                compare(offsetX, offsetY, width, height, i, j, -1, -1);
+                compare(offsetX, offsetY, width, height, i, j, 1, -1);
+            }
+            for (int i = width - 1; i >= 0; i--) {
+                compare(offsetX, offsetY, width, height, i, j, 1, 0);
+            }
+        }
+        for (int j = height - 1; j >= 0; j--) {
+            for (int i = width - 1; i >= 0; i--) {
+                compare(offsetX, offsetY, width, height, i, j, 1, 0);
+                compare(offsetX, offsetY, width, height, i, j, 0, 1);
+                compare(offsetX, offsetY, width, height, i, j, -1, 1);
+                compare(offsetX, offsetY, width, height, i, j, 1, 1);
+            }
+            for (int i = 0; i < width; i++) {
+                compare(offsetX, offsetY, width, height, i, j, -1, 0);
+            }
+        }
+    }
+
+    /**
+     * Take the offset of a neighbor pixel if it gives a nearer seed.
+     *
+     * @param offsetX int[]
+     * @param offsetY int[]
+     * @param width   int
+     * @param height  int
+     * @param i       int, column of the pixel
+     * @param j       int, row of the pixel
+     * @param di      int, column offset of the neighbor
+     * @param dj      int, row offset of the neighbor
+     */
+    static private void compare(int[] offsetX, int[] offsetY, int width, int height, int i, int j, int di, int dj) {
+        int ni = i + di;
+        int nj = j + dj;
+        if ((ni < 0) || (ni >= width) || (nj < 0) || (nj >= height)) {
+            return;
+        }
+        int index = j * width + i;
+        int neighbor = nj * width + ni;
+        int x = offsetX[neighbor] + di;
+        int y = offsetY[neighbor] + dj;
+        int ox = offsetX[index];
+        int oy = offsetY[index];
+        if ((long) x * x + (long) y * y < (long) ox * ox + (long) oy * oy) {
+            offsetX[index] = x;
+            offsetY[index] = y;
+        }
+    }
+
+    /**
+     * Create a texture region of a distance field, white with the field as alpha and linear interpolation.
+     *
+     * @param field Mask, with a distance field
+     * @return TextureRegion
+     */
+    static public TextureRegion createTextureRegion(Mask field) {
+        Pixmap pixmap = field.createColorPixmap(Color.WHITE);
+        TextureRegion textureRegion = TextureU.textureRegionFromPixmap(pixmap);
+        pixmap.dispose();
+        return textureRegion;
+    }
+}
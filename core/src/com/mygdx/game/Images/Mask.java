@@ -10,12 +10,16 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Shape2D;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.FloatArray;
 import com.mygdx.game.utilities.ArrayU;
 import com.mygdx.game.utilities.MathU;
 import com.mygdx.game.utilities.TextureU;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A rectangular region of bytes to use as a mask for pixmaps. Uses a simple byte array.
@@ -31,11 +35,35 @@ public class Mask {
     public int height;
     public float smoothFactor;
     public float smoothLengthInside, smoothLengthOutside;
-    public FloatArray lineAX=new FloatArray();
-    public FloatArray lineAY=new FloatArray();
-    public FloatArray lineLength=new FloatArray();
-    public FloatArray lineEX=new FloatArray();
-    public FloatArray lineEY=new FloatArray();
+    static public final int NONZERO = 0;
+    static public final int EVEN_ODD = 1;
+    public int fillRule = NONZERO;                  // inside of polygons
+    private float[] edges = new float[0];           // (ax, ay, bx, by) of each edge of the polygon, y-axis flipped
+    private int edgeCount;
+    private long[] edgeOrder = new long[0];         // sortable lowest y-coordinate and index of the edges
+    private float edgesMinY, edgesMaxY;
+    private Scanline scanline = new Scanline();
+    public boolean parallel = false;                // fill large shapes in bands of rows on a fork-join pool
+    public int parallelThreshold = 65536;           // minimum number of pixels for parallel filling
+    public int rowsPerTask = 32;                    // rows of a single task of parallel filling
+    static ForkJoinPool forkJoinPool;
+    private int[] rowWords = new int[0];            // pixels of a row for writing pixmaps
+
+    /**
+     * Data for filling the rows of a polygon: active edges, crossings, inside spans and smoothing bands.
+     */
+    static class Scanline {
+        int[] active = new int[16];                 // indices of edges near the row
+        int activeCount;
+        int nextEdge;                               // in the sorted edges, the next to become active
+        float[] crossingX = new float[16];          // sorted
+        int[] crossingDirection = new int[16];      // +1 or -1
+        int crossingCount;
+        float[] spans = new float[16];              // start and end of the inside spans
+        int spanCount;
+        int[] bands = new int[16];                  // first and last pixel that may need smoothing
+        int bandCount;
+    }
 
     /**
      * Create a transparent mask of given width and height. Symmetric smoothing length 1.
@@ -207,6 +235,28 @@ public class Mask {
      * @param radius float, radius of the circle
      */
     public void fillCircle(float centerX, float centerY, float radius) {
+        float outerRadius=radius+smoothLengthOutside;
+        float flippedCenterY = flipY(centerY);
+        int jMax = Math.min(height - 1, MathUtils.ceil(flippedCenterY + outerRadius));
+        int jMin = Math.max(0, MathUtils.floor(flippedCenterY - outerRadius - 1));
+        if (isParallel(jMin,jMax)){
+            getForkJoinPool().invoke(new CircleRowsTask(centerX,flippedCenterY,radius,jMin,jMax+1));
+        }
+        else {
+            fillCircleRows(centerX,flippedCenterY,radius,jMin,jMax+1);
+        }
+    }
+
+    /**
+     * Draw the rows of a disc.
+     *
+     * @param centerX     float, x-coordinate of the center
+     * @param centerY     float, flipped y-coordinate of the center
+     * @param radius float, radius of the circle
+     * @param from int, index of the first row
+     * @param to int, index after the last row
+     */
+    private void fillCircleRows(float centerX, float centerY, float radius, int from, int to) {
         float dx, dy2, dx2PlusDy2;
         float radiusSq=radius*radius;
         float iRadius2=0.5f/radius;
@@ -214,14 +264,11 @@ public class Mask {
         float outerRadiusSq=outerRadius*outerRadius;
         float innerRadius=radius-smoothLengthInside;
         float innerRadiusSq=innerRadius*innerRadius;
-        centerY = flipY(centerY);
-        int iMax, iMin, jMax, jMin;
+        int iMax, iMin;
         iMax = Math.min(width - 1, MathUtils.ceil(centerX + outerRadius));
         iMin = Math.max(0, MathUtils.floor(centerX - outerRadius - 1));
-        jMax = Math.min(height - 1, MathUtils.ceil(centerY + outerRadius));
-        jMin = Math.max(0, MathUtils.floor(centerY - outerRadius - 1));
         int i, j, index;
-        for (j = jMin; j <= jMax; j++) {
+        for (j = from; j < to; j++) {
             index = j * width+iMin;
             dy2 = j + 0.5f - centerY;
             dy2 *= dy2;
@@ -250,128 +297,449 @@ public class Mask {
     }
 
     /**
-     *  clear the floatArrays for the lines
+     * Fill large shapes in parallel, in bands of rows on a fork-join pool. The result is the same as for serial filling.
+     *
+     * @param parallel boolean, true for parallel filling
+     * @return this, for chaining
+     */
+    public Mask setParallel(boolean parallel) {
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * Check if rows should be filled in parallel.
+     *
+     * @param jMin int, first row
+     * @param jMax int, last row
+     * @return boolean, true if parallel is set and the rows have enough pixels
+     */
+    private boolean isParallel(int jMin, int jMax) {
+        return parallel && ((jMax - jMin + 1) * width >= parallelThreshold) && (jMax - jMin >= rowsPerTask);
+    }
+
+    /**
+     * Get the pool for parallel filling, shared by all masks.
+     *
+     * @return ForkJoinPool
+     */
+    private static synchronized ForkJoinPool getForkJoinPool(){
+        if (forkJoinPool==null){
+            forkJoinPool=new ForkJoinPool();
+        }
+        return forkJoinPool;
+    }
+
+    /**
+     * Parallel filling of a disc for a range of rows, splitting it into bands.
+     * Rows have different pixels, thus tasks do not interfere.
+     */
+    private class CircleRowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        float centerX, centerY, radius;
+        int from, to;
+
+        CircleRowsTask(float centerX, float centerY, float radius, int from, int to){
+            this.centerX=centerX;
+            this.centerY=centerY;
+            this.radius=radius;
+            this.from=from;
+            this.to=to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to-from<=rowsPerTask){
+                fillCircleRows(centerX,centerY,radius,from,to);
+            }
+            else {
+                int middle=(from+to)/2;
+                invokeAll(new CircleRowsTask(centerX,centerY,radius,from,middle),
+                          new CircleRowsTask(centerX,centerY,radius,middle,to));
+            }
+        }
+    }
+
+    /**
+     * Parallel filling of the polygon of setEdges for a range of rows, splitting it into bands.
+     * Each band has its own scanline data and active edges.
      */
-    private void clearLines(){
-        lineAX.clear();
-        lineAY.clear();
-        lineEX.clear();
-        lineEY.clear();
-        lineLength.clear();
+    private class PolygonRowsTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        int from, to;
+
+        PolygonRowsTask(int from, int to){
+            this.from=from;
+            this.to=to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to-from<=rowsPerTask){
+                fillPolygonRows(from,to-1,new Scanline());
+            }
+            else {
+                int middle=(from+to)/2;
+                invokeAll(new PolygonRowsTask(from,middle),new PolygonRowsTask(middle,to));
+            }
+        }
+    }
+
+    /**
+     * Set the rule for the inside of polygons.
+     *
+     * @param fillRule int, NONZERO or EVEN_ODD
+     * @return this, for chaining
+     */
+    public Mask setFillRule(int fillRule) {
+        this.fillRule = fillRule;
+        return this;
+    }
+
+    /**
+     * Check if a winding number is inside polygons, depending on the fill rule.
+     *
+     * @param winding int, sum of the directions of the edges crossed going to the left
+     * @return boolean, true if inside
+     */
+    private boolean isInside(int winding) {
+        return (fillRule == EVEN_ODD) ? ((winding & 1) != 0) : (winding != 0);
+    }
+
+    /**
+     * Make a number of a float that can be sorted as an int.
+     *
+     * @param f float
+     * @return int, in the same order as the floats
+     */
+    static private int sortable(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits ^ ((bits >> 31) & 0x7fffffff);
     }
 
     /**
-     * add line data
+     * Set up the edges of a closed polygon, with flipped y-axis, sorted by their lowest y-coordinate.
+     * Determines the range of the coordinates. Edges of zero length are skipped.
      *
-     * @param ax float, x-coordinate of point a
-     * @param ay float, y-coordinate of point a
-     * @param bx float, x-coordinate of point b
-     * @param by float, y-coordinate of point b
+     * @param coordinates float[], (x,y) pairs of the vertices
      */
-    private void addLine(float ax,float ay,float bx,float by){
-        ay = flipY(ay);
-        by = flipY(by);
-        lineAX.add(ax);
-        lineAY.add(ay);
-        float ex = bx - ax;
-        float ey = by - ay;
-        float length=Vector2.len(ex, ey);
-        lineLength.add(length);
-        lineEX.add(ex /length);
-        lineEY.add(ey /length);
+    private void setEdges(float[] coordinates) {
+        int length = coordinates.length;
+        if (edges.length < 2 * length) {
+            edges = new float[2 * length];
+            edgeOrder = new long[length / 2];
+        }
+        edgeCount = 0;
+        edgesMinY = flipY(coordinates[1]);
+        edgesMaxY = edgesMinY;
+        for (int i = 0; i < length; i += 2) {
+            int k = (i + 2) % length;
+            float ax = coordinates[i];
+            float ay = flipY(coordinates[i + 1]);
+            float bx = coordinates[k];
+            float by = flipY(coordinates[k + 1]);
+            edgesMinY = Math.min(edgesMinY, ay);
+            edgesMaxY = Math.max(edgesMaxY, ay);
+            if ((ax == bx) && (ay == by)) {
+                continue;
+            }
+            int e = 4 * edgeCount;
+            edges[e] = ax;
+            edges[e + 1] = ay;
+            edges[e + 2] = bx;
+            edges[e + 3] = by;
+            edgeOrder[edgeCount] = ((long) sortable(Math.min(ay, by)) << 32) | edgeCount;
+            edgeCount++;
+        }
+        Arrays.sort(edgeOrder, 0, edgeCount);
     }
 
     /**
-     * Fill a convex polygon shape. Vertices have to be given in counter-clock sense.
+     * Fill a polygon shape with a scanline algorithm. The polygon may be non-convex and self-intersecting,
+     * its inside is given by the fill rule. The vertices may go in any sense.
+     * Pixels far from the border are filled in spans. Only pixels in the smoothing band around the edges
+     * get their opacity from their distance to the border.
      * Beware of acute angles and smoothing outside ("bleeding"): Better use smoothed contour if needed.
      *
      * @param coordinates float.... of float[] of (x,y) coordinate pairs for the vertices
      */
     public void fillPolygon(float... coordinates) {
-        int coordinatesLengthM2 = coordinates.length - 2;
-        clearLines();
-       // Array<Line> lines = new Array<Line>();
-        float xMin = coordinates[coordinatesLengthM2];
-        float xMax = xMin;
-        float yMin = flipY(coordinates[coordinatesLengthM2 + 1]);
-        float yMax = yMin;
-        // set up lines and determine range of coordinates
-        for (int i = 0; i < coordinatesLengthM2; i += 2) {
-           // lines.add(new Line(coordinates[i], coordinates[i + 1], coordinates[i + 2], coordinates[i + 3]));
-            addLine(coordinates[i], coordinates[i + 1], coordinates[i + 2], coordinates[i + 3]);
-            xMin = Math.min(xMin, coordinates[i]);
-            xMax = Math.max(xMax, coordinates[i]);
-            yMin = Math.min(yMin, flipY(coordinates[i + 1]));
-            yMax = Math.max(yMax, flipY(coordinates[i + 1]));
-        }
-        // close the loop
-        addLine(coordinates[coordinatesLengthM2], coordinates[coordinatesLengthM2 + 1], coordinates[0], coordinates[1]);
-        // determine range of pixels that can change
+        setEdges(coordinates);
+        if (edgeCount == 0) {
+            return;
+        }
         // taking into account smooth border of given outside width and shift of pixel positions
-        int iMin = Math.max(0, MathUtils.floor(xMin - 1-smoothLengthOutside));
-        int iMax = Math.min(width - 1, MathUtils.ceil(xMax+smoothLengthOutside));
-        int jMin = Math.max(0, MathUtils.floor(yMin - 1-smoothLengthOutside));
-        int jMax = Math.min(height - 1, MathUtils.ceil(yMax+smoothLengthOutside));
-        int i, j, lineIndex, index;
-        float pixMinAX,pixMinAY;
-        float dInside;                         // controls smoothing inside the polygon border, minimum
-        float dOutside;                      // control smoothing outside the border, maximum
-        float dLine;
-        int numberOfLines= lineAX.size;
-        for (j = jMin; j <= jMax; j++) {
-            index = j * width+iMin;
-            for (i = iMin; i <= iMax; i++) {
-                dInside = smoothLengthInside+1;
-                dOutside=-smoothLengthOutside-1;
-                for (lineIndex=0;lineIndex<numberOfLines;lineIndex++) {
-                    // vector from point a of line to pixel.
-                    // The pixel lies at (i+0.5,j+0.5).
-                    pixMinAX=i+0.5f- lineAX.get(lineIndex);
-                    pixMinAY=j+0.5f- lineAY.get(lineIndex);
-                    // determine distance from line. account for flipping the y-axis.
-                    dLine=-(lineEX.get(lineIndex)*pixMinAY-lineEY.get(lineIndex)*pixMinAX);
-                    // the distance points inside. positive values lie inside the border
-                    if (dLine>0){
-                        // inside the polygon: minimum smoothing
-                        dInside=Math.min(dInside,dLine);
-                    }
-                    else if (dLine+smoothLengthOutside<0){
-                        // far outside the polygon and the smoothing region: nothing
-                        dInside=-smoothLengthOutside-1;
-                        break;
-                    }
-                    else {
-                        // in the region outside, near this border line. Outside smoothing is determined by the line
-                        // smoothing is maximum
-                        dInside=-smoothLengthOutside-1;
-                        // get projected position
-                        float t=pixMinAX*lineEX.get(lineIndex)+pixMinAY*lineEY.get(lineIndex);
-                        if (t<0){
-                            // at the "left" of point a
-                            dLine=-Vector2.len(pixMinAX,pixMinAY);
-                        }
-                        else if (t>lineLength.get(lineIndex)){
-                            // we are at the right of point, rare event, no need to optimize
-                            dLine=-Vector2.len(pixMinAX-lineLength.get(lineIndex)*lineEX.get(lineIndex),
-                                               pixMinAY-lineLength.get(lineIndex)*lineEY.get(lineIndex));
-                        }
-                        dOutside=Math.max(dOutside,dLine);
-                    }
+        int jMin = Math.max(0, MathUtils.floor(edgesMinY - 1 - smoothLengthOutside));
+        int jMax = Math.min(height - 1, MathUtils.ceil(edgesMaxY + smoothLengthOutside));
+        if (isParallel(jMin, jMax)) {
+            getForkJoinPool().invoke(new PolygonRowsTask(jMin, jMax + 1));
+        } else {
+            fillPolygonRows(jMin, jMax, scanline);
+        }
+    }
+
+    /**
+     * Fill the edges of setEdges in a range of rows. The rows are inside the mask and near the edges.
+     *
+     * @param firstRow int, index of the first row
+     * @param lastRow  int, index of the last row
+     * @param scanline Scanline, data for the rows
+     */
+    private void fillPolygonRows(int firstRow, int lastRow, Scanline scanline) {
+        float band = Math.max(smoothLengthInside, smoothLengthOutside);
+        scanline.activeCount = 0;
+        scanline.nextEdge = 0;
+        for (int j = firstRow; j <= lastRow; j++) {
+            float y = j + 0.5f;
+            updateActiveEdges(y, band, scanline);
+            findSpans(y, scanline);
+            findBands(y, band, scanline);
+            fillRow(j, y, scanline);
+        }
+    }
+
+    /**
+     * Update the active edge table: Edges that are less than the band width from the row.
+     *
+     * @param y        float, of the centers of the pixels of the row
+     * @param band     float, width of the smoothing band
+     * @param scanline Scanline
+     */
+    private void updateActiveEdges(float y, float band, Scanline scanline) {
+        int[] active = scanline.active;
+        int count = 0;
+        for (int k = 0; k < scanline.activeCount; k++) {
+            int e = 4 * active[k];
+            if (Math.max(edges[e + 1], edges[e + 3]) + band >= y) {
+                active[count++] = active[k];
+            }
+        }
+        while (scanline.nextEdge < edgeCount) {
+            int edge = (int) edgeOrder[scanline.nextEdge];
+            int e = 4 * edge;
+            if (Math.min(edges[e + 1], edges[e + 3]) - band > y) {
+                break;
+            }
+            scanline.nextEdge++;
+            if (Math.max(edges[e + 1], edges[e + 3]) + band >= y) {
+                if (count == active.length) {
+                    active = Arrays.copyOf(active, 2 * count);
+                    scanline.active = active;
                 }
-                dInside=Math.max(dInside,dOutside);                  // combined smoothing
-                if (dInside > smoothLengthInside) {
-                    alpha[index]=(byte) 255;
+                active[count++] = edge;
+            }
+        }
+        scanline.activeCount = count;
+    }
+
+    /**
+     * Find the crossings of the active edges with the row, sorted by x, and the spans inside the polygon.
+     *
+     * @param y        float, of the centers of the pixels of the row
+     * @param scanline Scanline
+     */
+    private void findSpans(float y, Scanline scanline) {
+        int count = 0;
+        for (int k = 0; k < scanline.activeCount; k++) {
+            int e = 4 * scanline.active[k];
+            float ay = edges[e + 1];
+            float by = edges[e + 3];
+            if ((ay <= y) != (by <= y)) {
+                if (count == scanline.crossingX.length) {
+                    scanline.crossingX = Arrays.copyOf(scanline.crossingX, 2 * count);
+                    scanline.crossingDirection = Arrays.copyOf(scanline.crossingDirection, 2 * count);
                 }
-                else if (dInside>-smoothLengthOutside){
-                    setOpacity(index,dInside);
+                float x = edges[e] + (y - ay) * (edges[e + 2] - edges[e]) / (by - ay);
+                int direction = (by > ay) ? 1 : -1;
+                int i = count;
+                while ((i > 0) && (scanline.crossingX[i - 1] > x)) {        // insertion sort, few crossings
+                    scanline.crossingX[i] = scanline.crossingX[i - 1];
+                    scanline.crossingDirection[i] = scanline.crossingDirection[i - 1];
+                    i--;
                 }
-                index++;
+                scanline.crossingX[i] = x;
+                scanline.crossingDirection[i] = direction;
+                count++;
+            }
+        }
+        scanline.crossingCount = count;
+        int spanCount = 0;
+        int winding = 0;
+        float spanStart = 0;
+        for (int k = 0; k < count; k++) {
+            boolean wasInside = isInside(winding);
+            winding += scanline.crossingDirection[k];
+            boolean inside = isInside(winding);
+            if (!wasInside && inside) {
+                spanStart = scanline.crossingX[k];
+            } else if (wasInside && !inside) {
+                if (spanCount == scanline.spans.length) {
+                    scanline.spans = Arrays.copyOf(scanline.spans, 2 * spanCount);
+                }
+                scanline.spans[spanCount++] = spanStart;
+                scanline.spans[spanCount++] = scanline.crossingX[k];
+            }
+        }
+        scanline.spanCount = spanCount;
+    }
+
+    /**
+     * Find the pixels of the row that may be in the smoothing band of an active edge.
+     * Gives sorted and merged ranges of pixel indices.
+     *
+     * @param y        float, of the centers of the pixels of the row
+     * @param band     float, width of the smoothing band
+     * @param scanline Scanline
+     */
+    private void findBands(float y, float band, Scanline scanline) {
+        int count = 0;
+        int[] bands = scanline.bands;
+        for (int k = 0; k < scanline.activeCount; k++) {
+            int e = 4 * scanline.active[k];
+            float ax = edges[e];
+            float ay = edges[e + 1];
+            float bx = edges[e + 2];
+            float by = edges[e + 3];
+            float low, high;
+            if (ay == by) {
+                low = Math.min(ax, bx);
+                high = Math.max(ax, bx);
+            } else {
+                // the part of the edge less than the band width away in y-direction
+                float y0 = Math.max(Math.min(ay, by), y - band);
+                float y1 = Math.min(Math.max(ay, by), y + band);
+                if (y0 > y1) {
+                    continue;
+                }
+                float slope = (bx - ax) / (by - ay);
+                float x0 = ax + (y0 - ay) * slope;
+                float x1 = ax + (y1 - ay) * slope;
+                low = Math.min(x0, x1);
+                high = Math.max(x0, x1);
+            }
+            int first = Math.max(0, MathUtils.ceil(low - band - 0.5f));
+            int last = Math.min(width - 1, MathUtils.floor(high + band - 0.5f));
+            if (first > last) {
+                continue;
             }
+            if (count == bands.length) {
+                bands = Arrays.copyOf(bands, 2 * count);
+                scanline.bands = bands;
+            }
+            int i = count;
+            while ((i > 0) && (bands[i - 2] > first)) {                   // insertion sort by first pixel
+                bands[i] = bands[i - 2];
+                bands[i + 1] = bands[i - 1];
+                i -= 2;
+            }
+            bands[i] = first;
+            bands[i + 1] = last;
+            count += 2;
         }
+        int merged = 0;
+        for (int k = 0; k < count; k += 2) {
+            if ((merged > 0) && (bands[k] <= bands[merged - 1] + 1)) {
+                bands[merged - 1] = Math.max(bands[merged - 1], bands[k + 1]);
+            } else {
+                bands[merged++] = bands[k];
+                bands[merged++] = bands[k + 1];
+            }
+        }
+        scanline.bandCount = merged;
     }
 
     /**
-     * fill a convex polygon masterShape. Vertices in counter-clock sense
+     * Fill the spans of a row outside the bands and smooth the pixels of the bands.
+     *
+     * @param j        int, index of the row
+     * @param y        float, of the centers of the pixels of the row
+     * @param scanline Scanline
+     */
+    private void fillRow(int j, float y, Scanline scanline) {
+        int rowIndex = j * width;
+        int[] bands = scanline.bands;
+        int bandCount = scanline.bandCount;
+        for (int k = 0; k < scanline.spanCount; k += 2) {
+            // pixels with centers in [start, end)
+            int first = Math.max(0, MathUtils.ceil(scanline.spans[k] - 0.5f));
+            int last = Math.min(width - 1, MathUtils.ceil(scanline.spans[k + 1] - 0.5f) - 1);
+            for (int b = 0; (b < bandCount) && (first <= last); b += 2) {
+                if (bands[b + 1] < first) {
+                    continue;
+                }
+                if (bands[b] > last) {
+                    break;
+                }
+                if (bands[b] > first) {
+                    Arrays.fill(alpha, rowIndex + first, rowIndex + bands[b], (byte) 255);
+                }
+                first = bands[b + 1] + 1;
+            }
+            if (first <= last) {
+                Arrays.fill(alpha, rowIndex + first, rowIndex + last + 1, (byte) 255);
+            }
+        }
+        int crossing = 0;
+        int winding = 0;
+        for (int b = 0; b < bandCount; b += 2) {
+            for (int i = bands[b]; i <= bands[b + 1]; i++) {
+                float x = i + 0.5f;
+                while ((crossing < scanline.crossingCount) && (scanline.crossingX[crossing] <= x)) {
+                    winding += scanline.crossingDirection[crossing];
+                    crossing++;
+                }
+                boolean inside = isInside(winding);
+                float distance = borderDistance(x, y, winding, inside, scanline);
+                if (!inside) {
+                    distance = -distance;
+                }
+                if (distance > smoothLengthInside) {
+                    alpha[rowIndex + i] = (byte) 255;
+                } else if (distance > -smoothLengthOutside) {
+                    setOpacity(rowIndex + i, distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the distance of a pixel to the border of the polygon, using the active edges.
+     * An edge is part of the border if the inside changes going across it.
+     *
+     * @param x        float, of the center of the pixel
+     * @param y        float, of the center of the pixel
+     * @param winding  int, winding number of the pixel
+     * @param inside   boolean, true if the pixel is inside
+     * @param scanline Scanline
+     * @return float, distance, large if there is no active border edge
+     */
+    private float borderDistance(float x, float y, int winding, boolean inside, Scanline scanline) {
+        float distanceSq = Float.MAX_VALUE;
+        for (int k = 0; k < scanline.activeCount; k++) {
+            int e = 4 * scanline.active[k];
+            float ax = edges[e];
+            float ay = edges[e + 1];
+            float ex = edges[e + 2] - ax;
+            float ey = edges[e + 3] - ay;
+            float px = x - ax;
+            float py = y - ay;
+            float t = MathUtils.clamp((px * ex + py * ey) / (ex * ex + ey * ey), 0f, 1f);
+            float dx = px - t * ex;
+            float dy = py - t * ey;
+            float dSq = dx * dx + dy * dy;
+            if (dSq < distanceSq) {
+                float cross = ex * py - ey * px;
+                // winding number on the other side of the edge
+                if ((cross == 0) || (inside != isInside((cross < 0) ? winding - 1 : winding + 1))) {
+                    distanceSq = dSq;
+                }
+            }
+        }
+        return (distanceSq == Float.MAX_VALUE) ? Float.MAX_VALUE : (float) Math.sqrt(distanceSq);
+    }
+
+    /**
+     * fill a polygon masterShape.
      *
      * @param points Array of Vector2, the vertices
      */
@@ -401,7 +769,7 @@ public class Mask {
     }
 
     /**
-     * Fill a convex polygon given by a Shape2D Polygon.
+     * Fill a polygon given by a Shape2D Polygon.
      *
      * @param polygon Polygon
      */
@@ -493,18 +861,66 @@ public class Mask {
 
     /**
      * Mask the alpha channel of a pixmap.
-     * The pixmap has to have the same dimensions as the mask.
+     * The pixmap has to have the same dimensions as the mask, and the RGBA8888 or the Alpha format.
+     * Works on rows of whole pixels, for an Alpha pixmap copies all bytes at once.
      *
      * @param pixmap Pixmap, the mask sets its alpha channel.
      */
     public void setPixmapAlpha(Pixmap pixmap) {
         ByteBuffer pixels = pixmap.getPixels();
         pixels.rewind();
-        for (byte a :alpha) {
-            pixels.position(pixels.position()+3);    // skip rgb channel bytes !!
-            pixels.put(a);
+        if (pixmap.getFormat() == Pixmap.Format.Alpha) {
+            pixels.put(alpha);
+            pixels.rewind();
+            return;
         }
+        IntBuffer words = getWords(pixmap);
+        int[] row = getRowWords();
+        int shift = alphaShift();
+        int rgbMask = ~(255 << shift);
+        int index = 0;
+        for (int j = 0; j < height; j++) {
+            words.position(j * width);
+            words.get(row, 0, width);
+            for (int i = 0; i < width; i++) {
+                row[i] = (row[i] & rgbMask) | ((alpha[index++] & 255) << shift);
+            }
+            words.position(j * width);
+            words.put(row, 0, width);
+        }
+    }
+
+    /**
+     * Get the pixels of an RGBA8888 pixmap as words in native byte order, to avoid swapping bytes.
+     *
+     * @param pixmap Pixmap
+     * @return IntBuffer, a view of the pixel data
+     */
+    private IntBuffer getWords(Pixmap pixmap) {
+        ByteBuffer pixels = pixmap.getPixels().duplicate();
         pixels.rewind();
+        return pixels.order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Get the position of the alpha byte in the words of RGBA8888 pixels in native byte order.
+     *
+     * @return int, shift of the alpha byte in bits
+     */
+    private int alphaShift() {
+        return (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN) ? 0 : 24;
+    }
+
+    /**
+     * Get an array for the words of a row of pixels. Reused.
+     *
+     * @return int[], of at least the width of the mask
+     */
+    private int[] getRowWords() {
+        if (rowWords.length < width) {
+            rowWords = new int[width];
+        }
+        return rowWords;
     }
 
     /**
@@ -560,8 +976,31 @@ public class Mask {
      */
     public Pixmap createColorPixmap(Color color) {
         Pixmap pixmap = createPixmap();
-        pixmap.setColor(color);
-        pixmap.fill();
+        int rgb = Color.rgba8888(color) & 0xffffff00;
+        int shift = alphaShift();
+        if (shift != 0) {
+            rgb = Integer.reverseBytes(rgb);
+        }
+        IntBuffer words = getWords(pixmap);
+        int[] row = getRowWords();
+        int index = 0;
+        for (int j = 0; j < height; j++) {
+            for (int i = 0; i < width; i++) {
+                row[i] = rgb | ((alpha[index++] & 255) << shift);
+            }
+            words.put(row, 0, width);
+        }
+        return pixmap;
+    }
+
+    /**
+     * Create a pixmap of the Alpha format with the mask bytes. A quarter of the memory of a color pixmap,
+     * as texture it gives black with the alpha of the mask.
+     *
+     * @return Pixmap
+     */
+    public Pixmap createAlphaPixmap() {
+        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.Alpha);
         setPixmapAlpha(pixmap);
         return pixmap;
     }
@@ -0,0 +1,492 @@
+package com.mygdx.game.Images;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Circle;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.utilities.TextureU;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A mask stored as runs of equal bytes in each row. For large masks that are mostly transparent or opaque,
+ * such as thin outlines or scattered dots. Rows are as in Mask, with a flipped y-axis.
+ * Each run begins at a column and goes to the beginning of the next run or the end of its row.
+ * Neighboring runs of a row have different values. Clearing, inverting, combining and the center of mass
+ * take a time proportional to the number of runs, not of pixels.
+ * Shapes are filled in strips of rows with a small dense mask, its smoothing and fill rule apply.
+ * Only pixmaps are dense.
+ */
+
+public class RunLengthMask {
+    public int stripHeight = 64;                    // rows of the dense mask for filling shapes
+    public int width;
+    public int height;
+    int[] rowStart;                                 // index of the first run of each row, and total at the end
+    int[] runX;                                     // first column of each run
+    byte[] runAlpha;                                // value of each run
+    int runCount;
+    // runs built by an operation, then swapped with the runs of the mask
+    private int[] newRowStart;
+    private int[] newX = new int[0];
+    private byte[] newAlpha = new byte[0];
+    private int newCount;
+    private int newRowBegin;
+    private Mask strip;
+    private float[] shiftedVertices = new float[0]; // of a polygon, shifted into the strip
+
+    /**
+     * Create a transparent run length mask of given width and height.
+     *
+     * @param width  int, width of the pixmap
+     * @param height int, height of the pixmap
+     */
+    public RunLengthMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        rowStart = new int[height + 1];
+        newRowStart = new int[height + 1];
+        runX = new int[height];
+        runAlpha = new byte[height];
+        clear();
+    }
+
+    /**
+     * Create a run length mask with the same bytes as a dense mask.
+     *
+     * @param mask Mask
+     * @return RunLengthMask
+     */
+    static public RunLengthMask create(Mask mask) {
+        RunLengthMask runLengthMask = new RunLengthMask(mask.width, mask.height);
+        runLengthMask.newCount = 0;
+        for (int j = 0; j < mask.height; j++) {
+            runLengthMask.beginRow(j);
+            runLengthMask.appendRow(mask.alpha, j * mask.width);
+        }
+        runLengthMask.swap();
+        return runLengthMask;
+    }
+
+    /**
+     * Create a dense mask with the same bytes.
+     *
+     * @return Mask
+     */
+    public Mask toMask() {
+        Mask mask = new Mask(width, height);
+        for (int j = 0; j < height; j++) {
+            expandRow(j, mask.alpha, j * width, 1);
+        }
+        return mask;
+    }
+
+    /**
+     * Get the number of runs. A dense mask would use width*height bytes.
+     *
+     * @return int
+     */
+    public int runCount() {
+        return runCount;
+    }
+
+    /**
+     * Get the dense mask used for filling strips of rows. Set its smoothing and fill rule to change how
+     * shapes are filled.
+     *
+     * @return Mask
+     */
+    public Mask getStrip() {
+        if (strip == null) {
+            strip = new Mask(width, Math.max(1, Math.min(stripHeight, height)));
+        }
+        return strip;
+    }
+
+    /**
+     * Set the number of rows of the dense mask for filling shapes. A new strip mask is made at the next fill,
+     * set its smoothing and fill rule again.
+     *
+     * @param stripHeight int, number of rows
+     * @return this, for chaining
+     */
+    public RunLengthMask setStripHeight(int stripHeight) {
+        this.stripHeight = stripHeight;
+        strip = null;
+        return this;
+    }
+
+    /**
+     * Begin the new runs of a row.
+     *
+     * @param j int, row index
+     */
+    private void beginRow(int j) {
+        newRowStart[j] = newCount;
+        newRowBegin = newCount;
+    }
+
+    /**
+     * Append a run to the new runs. Merges it with the previous run of the row if it has the same value.
+     *
+     * @param x int, first column
+     * @param a int, value between 0 and 255
+     */
+    private void append(int x, int a) {
+        if ((newCount > newRowBegin) && ((newAlpha[newCount - 1] & 255) == a)) {
+            return;
+        }
+        if (newCount == newX.length) {
+            int capacity = Math.max(16, 2 * newCount);
+            newX = Arrays.copyOf(newX, capacity);
+            newAlpha = Arrays.copyOf(newAlpha, capacity);
+        }
+        newX[newCount] = x;
+        newAlpha[newCount] = (byte) a;
+        newCount++;
+    }
+
+    /**
+     * Append the runs of a row of bytes to the new runs.
+     *
+     * @param bytes  byte[], dense rows
+     * @param offset int, index of the first byte of the row
+     */
+    private void appendRow(byte[] bytes, int offset) {
+        for (int i = 0; i < width; i++) {
+            append(i, bytes[offset + i] & 255);
+        }
+    }
+
+    /**
+     * Append the unchanged runs of a row of the mask to the new runs.
+     *
+     * @param j int, row index
+     */
+    private void copyRow(int j) {
+        for (int k = rowStart[j]; k < rowStart[j + 1]; k++) {
+            append(runX[k], runAlpha[k] & 255);
+        }
+    }
+
+    /**
+     * Make the new runs the runs of the mask.
+     */
+    private void swap() {
+        newRowStart[height] = newCount;
+        int[] swapRowStart = rowStart;
+        rowStart = newRowStart;
+        newRowStart = swapRowStart;
+        int[] swapX = runX;
+        runX = newX;
+        newX = swapX;
+        byte[] swapAlpha = runAlpha;
+        runAlpha = newAlpha;
+        newAlpha = swapAlpha;
+        runCount = newCount;
+    }
+
+    /**
+     * Get the end of a run, the column after its last pixel.
+     *
+     * @param k      int, index of the run
+     * @param rowEnd int, index after the last run of its row
+     * @return int
+     */
+    private int runEnd(int k, int rowEnd) {
+        return (k + 1 < rowEnd) ? runX[k + 1] : width;
+    }
+
+    /**
+     * Write the bytes of a row into an array.
+     *
+     * @param j      int, row index
+     * @param bytes  byte[], destination
+     * @param offset int, index for the first pixel of the row
+     * @param stride int, distance between the bytes of neighboring pixels
+     */
+    private void expandRow(int j, byte[] bytes, int offset, int stride) {
+        int rowEnd = rowStart[j + 1];
+        for (int k = rowStart[j]; k < rowEnd; k++) {
+            byte a = runAlpha[k];
+            int end = offset + stride * runEnd(k, rowEnd);
+            for (int index = offset + stride * runX[k]; index < end; index += stride) {
+                bytes[index] = a;
+            }
+        }
+    }
+
+    /**
+     * Make the mask transparent.
+     *
+     * @return this, for chaining
+     */
+    public RunLengthMask clear() {
+        for (int j = 0; j < height; j++) {
+            rowStart[j] = j;
+            runX[j] = 0;
+            runAlpha[j] = 0;
+        }
+        rowStart[height] = height;
+        runCount = height;
+        return this;
+    }
+
+    /**
+     * Invert the mask bytes. Neighboring runs stay different.
+     *
+     * @return this, for chaining
+     */
+    public RunLengthMask invert() {
+        for (int k = runCount - 1; k >= 0; k--) {
+            runAlpha[k] = (byte) (255 - (runAlpha[k] & 255));
+        }
+        return this;
+    }
+
+    /**
+     * Combine the mask with another one using "AND" (mathematical min).
+     * The masks have to have the same dimensions.
+     *
+     * @param mask2 RunLengthMask, for combination
+     * @return this, for chaining
+     */
+    public RunLengthMask and(RunLengthMask mask2) {
+        return combine(mask2, false);
+    }
+
+    /**
+     * Combine the mask with another one using "OR" (mathematical max).
+     * The masks have to have the same dimensions.
+     *
+     * @param mask2 RunLengthMask, for combination
+     * @return this, for chaining
+     */
+    public RunLengthMask or(RunLengthMask mask2) {
+        return combine(mask2, true);
+    }
+
+    /**
+     * Combine the mask with another one, walking through the runs of both rows together.
+     *
+     * @param mask2 RunLengthMask
+     * @param max   boolean, true for maximum, false for minimum
+     * @return this, for chaining
+     */
+    private RunLengthMask combine(RunLengthMask mask2, boolean max) {
+        newCount = 0;
+        for (int j = 0; j < height; j++) {
+            beginRow(j);
+            int k = rowStart[j];
+            int kEnd = rowStart[j + 1];
+            int k2 = mask2.rowStart[j];
+            int k2End = mask2.rowStart[j + 1];
+            int x = 0;
+            while (x < width) {
+                int a = runAlpha[k] & 255;
+                int a2 = mask2.runAlpha[k2] & 255;
+                append(x, max ? Math.max(a, a2) : Math.min(a, a2));
+                int end = runEnd(k, kEnd);
+                int end2 = mask2.runEnd(k2, k2End);
+                x = Math.min(end, end2);
+                if (end == x) {
+                    k++;
+                }
+                if (end2 == x) {
+                    k2++;
+                }
+            }
+        }
+        swap();
+        return this;
+    }
+
+    /**
+     * Calculate the center of mass of the mask, as Mask.getCenter.
+     *
+     * @return Vector2, position of the center of mass
+     */
+    public Vector2 getCenter() {
+        long surface = 0;
+        long centerX = 0;
+        long centerY = 0;
+        for (int j = 0; j < height; j++) {
+            int rowEnd = rowStart[j + 1];
+            long rowSurface = 0;
+            for (int k = rowStart[j]; k < rowEnd; k++) {
+                int a = runAlpha[k] & 255;
+                if (a > 0) {
+                    int x = runX[k];
+                    int end = runEnd(k, rowEnd);
+                    long length = end - x;
+                    rowSurface += a * length;
+                    centerX += a * (length * (x + end - 1) / 2);     // sum of the columns of the run
+                }
+            }
+            surface += rowSurface;
+            centerY += rowSurface * j;
+        }
+        surface = Math.max(surface, 1);
+        return new Vector2((float) ((double) centerX / surface), (float) ((double) centerY / surface));
+    }
+
+    /**
+     * Fill a Shape2D shape. Only Circle, Rectangle, Polygon and Shape2DCollection shapes.
+     * The rows near the shape are filled in strips with the dense strip mask and merged with "OR".
+     * The shape does not change, the strips use shifted copies of its coordinates.
+     *
+     * @param shape Shape2D
+     * @return this, for chaining
+     */
+    public RunLengthMask fill(Shape2D shape) {
+        Mask strip = getStrip();
+        int stripRows = strip.height;
+        float pad = Math.max(strip.smoothLengthInside, strip.smoothLengthOutside) + 1;
+        int first = Math.max(0, MathUtils.floor(height - Shape2DLimits.maxYShape(shape) - pad));
+        int last = Math.min(height - 1, MathUtils.ceil(height - Shape2DLimits.minYShape(shape) + pad));
+        if (first > last) {
+            return this;
+        }
+        // strip row s is row first+s of the mask
+        float shift = first + stripRows - height;
+        newCount = 0;
+        for (int j = 0; j < first; j++) {
+            beginRow(j);
+            copyRow(j);
+        }
+        for (int stripFirst = first; stripFirst <= last; stripFirst += stripRows) {
+            strip.clear();
+            fillStrip(shape, shift + stripFirst - first);
+            int stripLast = Math.min(last, stripFirst + stripRows - 1);
+            for (int j = stripFirst; j <= stripLast; j++) {
+                beginRow(j);
+                orRow(j, strip.alpha, (j - stripFirst) * width);
+            }
+        }
+        for (int j = last + 1; j < height; j++) {
+            beginRow(j);
+            copyRow(j);
+        }
+        swap();
+        return this;
+    }
+
+    /**
+     * Fill a shape into the strip mask, shifted in y-direction. As Mask.fill, without changing the shape.
+     *
+     * @param shape Shape2D
+     * @param shift float, added to the y-coordinates, a whole number
+     */
+    private void fillStrip(Shape2D shape, float shift) {
+        if (shape instanceof Polygon) {
+            float[] vertices = ((Polygon) shape).getVertices();
+            if (shiftedVertices.length != vertices.length) {
+                shiftedVertices = new float[vertices.length];
+            }
+            for (int i = vertices.length - 2; i >= 0; i -= 2) {
+                shiftedVertices[i] = vertices[i];
+                shiftedVertices[i + 1] = vertices[i + 1] + shift;
+            }
+            strip.fillPolygon(shiftedVertices);
+        } else if (shape instanceof Circle) {
+            Circle circle = (Circle) shape;
+            strip.fillCircle(circle.x, circle.y + shift, circle.radius);
+        } else if (shape instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) shape;
+            strip.fillRect(Math.round(rectangle.x), Math.round(rectangle.y + shift),
+                    Math.round(rectangle.width), Math.round(rectangle.height));
+        } else if (shape instanceof Shape2DCollection) {
+            for (Shape2D subShape : ((Shape2DCollection) shape).items) {
+                fillStrip(subShape, shift);
+            }
+        }
+    }
+
+    /**
+     * Append a row of the mask combined with a dense row using "OR" to the new runs.
+     *
+     * @param j      int, row index
+     * @param bytes  byte[], dense rows
+     * @param offset int, index of the first byte of the row
+     */
+    private void orRow(int j, byte[] bytes, int offset) {
+        int rowEnd = rowStart[j + 1];
+        for (int k = rowStart[j]; k < rowEnd; k++) {
+            int a = runAlpha[k] & 255;
+            int end = runEnd(k, rowEnd);
+            for (int i = runX[k]; i < end; i++) {
+                append(i, Math.max(a, bytes[offset + i] & 255));
+            }
+        }
+    }
+
+    /**
+     * Mask the alpha channel of a pixmap. Expands the runs into the pixel data.
+     * The pixmap has to have the same dimensions as the mask and the RGBA8888 format.
+     *
+     * @param pixmap Pixmap, the mask sets its alpha channel.
+     */
+    public void setPixmapAlpha(Pixmap pixmap) {
+        ByteBuffer pixels = pixmap.getPixels();
+        byte[] row = new byte[4 * width];
+        for (int j = 0; j < height; j++) {
+            pixels.position(4 * width * j);
+            pixels.get(row);
+            expandRow(j, row, 3, 4);
+            pixels.position(4 * width * j);
+            pixels.put(row);
+        }
+        pixels.rewind();
+    }
+
+    /**
+     * Create a pixmap with an alpha channel and of the same dimensions as the mask. 8 bits per channel.
+     *
+     * @return Pixmap
+     */
+    public Pixmap createPixmap() {
+        return new Pixmap(width, height, Pixmap.Format.RGBA8888);
+    }
+
+    /**
+     * Create a pixmap with transparency resulting from the mask and given solid color.
+     *
+     * @param color Color, for the image
+     * @return pixmap
+     */
+    public Pixmap createColorPixmap(Color color) {
+        Pixmap pixmap = createPixmap();
+        pixmap.setColor(color);
+        pixmap.fill();
+        setPixmapAlpha(pixmap);
+        return pixmap;
+    }
+
+    /**
+     * Create a pixmap with transparency resulting from the mask and the color of masks.
+     *
+     * @return pixmap
+     */
+    public Pixmap createColorPixmap() {
+        return createColorPixmap(Mask.color);
+    }
+
+    /**
+     * Create a solid color image textureRegion with transparency resulting from the mask.
+     *
+     * @param color Color, for the image
+     * @return TextureRegion
+     */
+    public TextureRegion createColorTextureRegion(Color color) {
+        Pixmap pixmap = createColorPixmap(color);
+        TextureRegion textureRegion = TextureU.textureRegionFromPixmap(pixmap);
+        pixmap.dispose();
+        return textureRegion;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mygdx.game.Sprite;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * Draws sprites with a texture of a signed distance field, see Images.DistanceField.
+ * Uses the shader of distance field fonts, made by the device of the sprite and disposed with it.
+ * The border stays sharp at any size of the sprite.
+ * The color of the sprite gives the color of the image.
+ * The smoothing of the border depends on the size of the sprite relative to its texture region,
+ * zoom of the camera is not taken into account.
+ * Changes the shader of the sprite batch for each sprite, which flushes the batch.
+ */
+
+public class DistanceFieldDraw implements SpriteDraw {
+    public float spread;
+
+    /**
+     * Create the draw method for distance fields with a spread.
+     *
+     * @param spread float, saturation distance of the distance field, in its pixels
+     */
+    public DistanceFieldDraw(float spread) {
+        this.spread = spread;
+    }
+
+    /**
+     * Draw the sprite with the distance field shader. Then restore the shader of the batch.
+     *
+     * @param sprite ExtensibleSprite
+     */
+    @Override
+    public void draw(ExtensibleSprite sprite) {
+        SpriteBatch batch = sprite.device.spriteBatch;
+        ShaderProgram previousShader = batch.getShader();
+        ShaderProgram distanceFieldShader = sprite.device.createDistanceFieldShader();
+        batch.setShader(distanceFieldShader);
+        float scale = Math.abs(sprite.getWidth() * sprite.getScaleX()) / Math.max(1, sprite.getRegionWidth());
+        // the shader smooths over 0.25/u_smoothing, half a screen pixel, as for distance field fonts
+        distanceFieldShader.setUniformf("u_smoothing", spread * scale);
+        sprite.draw(batch);
+        batch.setShader(previousShader);
+    }
+}
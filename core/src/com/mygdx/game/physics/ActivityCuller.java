@@ -0,0 +1,445 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.EdgeShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.physics.box2d.Transform;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.util.Arrays;
+
+/**
+ * Deactivates dynamic and kinematic bodies far outside the view of a camera and activates them again
+ * when the camera comes near. Inactive bodies are not simulated and keep their state.
+ * Bodies connected by joints or touching contacts form a group, like the islands of box2D.
+ * A group is deactivated only if all its bodies are beyond the deactivation margin,
+ * and it is activated again as a whole if one of its bodies comes inside the activation margin.
+ * The deactivation margin is larger than the activation margin, thus bodies do not switch again and again.
+ * Static bodies are never deactivated.
+ * Set it with Physics.setActivityCuller. Checks the bodies after every interval of steps.
+ * It owns the active flags of the bodies: Restoring a PhysicsSnapshot activates all culled bodies and checks again.
+ */
+
+public class ActivityCuller {
+    Physics physics;
+    Camera camera;
+    public float activationMargin = 200;           // in pixels, around the view
+    public float deactivationMargin = 500;         // in pixels, larger than activationMargin
+    public int interval = 10;                      // number of steps between checks
+    public int maxDeactivations = 1000;            // bodies per check, groups are not split
+    public int activated = 0;                      // bodies activated at the last check
+    public int deactivated = 0;                    // bodies deactivated at the last check
+    private int stepsSinceCheck = 0;
+    private boolean hasView = false;
+    private float viewLeft, viewBottom, viewRight, viewTop;     // in meters, copied from the camera
+    private float minX, minY, maxX, maxY;          // bounds of the last body, in meters
+    private Array<Body> culledBodies = new Array<Body>(false, 16, Body.class);
+    private IntArray culledGroups = new IntArray(false, 16);
+    private boolean[] waking = new boolean[0];      // for each group: has a body near the view
+    private IntIntMap groupNumbers = new IntIntMap();
+    private int nextGroup = 0;
+    private ObjectIntMap<Body> indices = new ObjectIntMap<Body>();
+    private int[] parents = new int[0];
+    private boolean[] far = new boolean[0];         // of the roots: all bodies of the group are far
+    private int[] groups = new int[0];               // of the roots: group number of deactivated bodies
+    private Array<Joint> joints = new Array<Joint>(true, 16, Joint.class);
+    private Vector2 vertex = new Vector2();
+
+    /**
+     * Create a culler for the view of a camera. For a viewport use its camera.
+     *
+     * @param physics Physics
+     * @param camera  Camera, for example a FollowCamera, positions in pixels
+     */
+    public ActivityCuller(Physics physics, Camera camera) {
+        this.physics = physics;
+        this.camera = camera;
+    }
+
+    /**
+     * Set the margins around the view. The deactivation margin should be larger than the activation margin.
+     *
+     * @param activationMargin   float, bodies inside this margin are active, in pixels
+     * @param deactivationMargin float, bodies outside this margin are inactive, in pixels
+     * @return this, for chaining
+     */
+    public ActivityCuller setMargins(float activationMargin, float deactivationMargin) {
+        this.activationMargin = activationMargin;
+        this.deactivationMargin = Math.max(activationMargin, deactivationMargin);
+        return this;
+    }
+
+    /**
+     * Copy the visible region of the camera. Physics calls this at the beginning of advance, on the render thread.
+     */
+    public synchronized void readCamera() {
+        float zoom = (camera instanceof OrthographicCamera) ? ((OrthographicCamera) camera).zoom : 1;
+        float halfWidth = 0.5f * zoom * camera.viewportWidth;
+        float halfHeight = 0.5f * zoom * camera.viewportHeight;
+        viewLeft = (camera.position.x - halfWidth) / Physics.PIXELS_PER_METER;
+        viewRight = (camera.position.x + halfWidth) / Physics.PIXELS_PER_METER;
+        viewBottom = (camera.position.y - halfHeight) / Physics.PIXELS_PER_METER;
+        viewTop = (camera.position.y + halfHeight) / Physics.PIXELS_PER_METER;
+        hasView = true;
+    }
+
+    /**
+     * Count a step of physics and check the bodies if the interval is complete.
+     */
+    public void afterStep() {
+        stepsSinceCheck++;
+        if (stepsSinceCheck >= interval) {
+            check();
+        }
+    }
+
+    /**
+     * Activate the groups of bodies near the view and deactivate groups far outside. Call between steps.
+     */
+    public void check() {
+        stepsSinceCheck = 0;
+        activated = 0;
+        deactivated = 0;
+        float left, bottom, right, top;
+        synchronized (this) {
+            if (!hasView) {
+                return;
+            }
+            left = viewLeft;
+            bottom = viewBottom;
+            right = viewRight;
+            top = viewTop;
+        }
+        physics.updateBodies();
+        indexBodies();
+        float margin = activationMargin / Physics.PIXELS_PER_METER;
+        activateGroups(left - margin, bottom - margin, right + margin, top + margin);
+        margin = deactivationMargin / Physics.PIXELS_PER_METER;
+        deactivateGroups(left - margin, bottom - margin, right + margin, top + margin);
+    }
+
+    /**
+     * Activate all culled bodies, for example before removing the culler.
+     * Forgets culled bodies that have been destroyed before.
+     */
+    public void activateAll() {
+        physics.updateBodies();
+        indexBodies();
+        Body[] bodies = culledBodies.items;
+        for (int i = culledBodies.size - 1; i >= 0; i--) {
+            bodies[i].setActive(true);
+        }
+        culledBodies.clear();
+        culledGroups.clear();
+        nextGroup = 0;
+    }
+
+    /**
+     * Forget a body that physics destroys. Box2D reuses the objects of destroyed bodies.
+     *
+     * @param body Body
+     */
+    void forgetBody(Body body) {
+        int i = culledBodies.indexOf(body, true);
+        if (i >= 0) {
+            culledBodies.removeIndex(i);
+            culledGroups.removeIndex(i);
+        }
+    }
+
+    /**
+     * Forget bodies that physics destroys, in one pass.
+     *
+     * @param destroyedBodies ObjectSet of bodies
+     */
+    void forgetBodies(ObjectSet<Body> destroyedBodies) {
+        for (int i = culledBodies.size - 1; i >= 0; i--) {
+            if (destroyedBodies.contains(culledBodies.items[i])) {
+                culledBodies.removeIndex(i);
+                culledGroups.removeIndex(i);
+            }
+        }
+    }
+
+    /**
+     * Get the number of bodies deactivated by the culler.
+     *
+     * @return int
+     */
+    public int culledCount() {
+        return culledBodies.size;
+    }
+
+    /**
+     * Make the index of each body of the world and forget culled bodies that have been destroyed or activated by others.
+     * Numbers the remaining groups from zero.
+     */
+    private void indexBodies() {
+        Body[] bodies = physics.bodies.items;
+        int length = physics.bodies.size;
+        indices.clear(length);
+        for (int i = 0; i < length; i++) {
+            indices.put(bodies[i], i);
+        }
+        for (int i = culledBodies.size - 1; i >= 0; i--) {
+            Body body = culledBodies.items[i];
+            if (!indices.containsKey(body) || body.isActive()) {
+                culledBodies.removeIndex(i);
+                culledGroups.removeIndex(i);
+            }
+        }
+        groupNumbers.clear();
+        nextGroup = 0;
+        int[] groupItems = culledGroups.items;
+        for (int i = 0; i < culledGroups.size; i++) {
+            int number = groupNumbers.get(groupItems[i], -1);
+            if (number < 0) {
+                number = nextGroup++;
+                groupNumbers.put(groupItems[i], number);
+            }
+            groupItems[i] = number;
+        }
+    }
+
+    /**
+     * Activate the groups that have a body inside the region.
+     *
+     * @param left   float, in meters
+     * @param bottom float
+     * @param right  float
+     * @param top    float
+     */
+    private void activateGroups(float left, float bottom, float right, float top) {
+        if (waking.length < nextGroup) {
+            waking = new boolean[Math.max(nextGroup, 2 * waking.length)];
+        }
+        Body[] bodies = culledBodies.items;
+        int[] groupItems = culledGroups.items;
+        int length = culledBodies.size;
+        boolean anyWaking = false;
+        for (int i = 0; i < length; i++) {
+            if (!waking[groupItems[i]] && overlaps(bodies[i], left, bottom, right, top)) {
+                waking[groupItems[i]] = true;
+                anyWaking = true;
+            }
+        }
+        if (!anyWaking) {
+            return;
+        }
+        for (int i = culledBodies.size - 1; i >= 0; i--) {
+            if (waking[culledGroups.items[i]]) {
+                culledBodies.removeIndex(i).setActive(true);
+                culledGroups.removeIndex(i);
+                activated++;
+            }
+        }
+        Arrays.fill(waking, 0, nextGroup, false);
+    }
+
+    /**
+     * Deactivate the groups of active bodies that are all outside the region.
+     * Groups are connected by joints and touching contacts, not through static bodies.
+     *
+     * @param left   float, in meters
+     * @param bottom float
+     * @param right  float
+     * @param top    float
+     */
+    private void deactivateGroups(float left, float bottom, float right, float top) {
+        Body[] bodies = physics.bodies.items;
+        int length = physics.bodies.size;
+        if (parents.length < length) {
+            parents = new int[Math.max(length, 2 * parents.length)];
+            far = new boolean[parents.length];
+            groups = new int[parents.length];
+        }
+        for (int i = 0; i < length; i++) {
+            parents[i] = i;
+            far[i] = isCullable(bodies[i]) && !overlaps(bodies[i], left, bottom, right, top);
+            groups[i] = -1;
+        }
+        physics.world.getJoints(joints);
+        for (int i = joints.size - 1; i >= 0; i--) {
+            Joint joint = joints.items[i];
+            union(joint.getBodyA(), joint.getBodyB());
+        }
+        joints.clear();
+        Array<Contact> contacts = physics.world.getContactList();
+        for (int i = contacts.size - 1; i >= 0; i--) {
+            Contact contact = contacts.get(i);
+            if (contact.isTouching()) {
+                union(contact.getFixtureA().getBody(), contact.getFixtureB().getBody());
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            if (isCullable(bodies[i])) {
+                int root = find(i);
+                far[root] = far[root] && far[i];
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            Body body = bodies[i];
+            if (!isCullable(body)) {
+                continue;
+            }
+            int root = find(i);
+            if (!far[root]) {
+                continue;
+            }
+            if (groups[root] < 0) {
+                if (deactivated >= maxDeactivations) {
+                    far[root] = false;
+                    continue;
+                }
+                groups[root] = nextGroup++;
+            }
+            body.setActive(false);
+            culledBodies.add(body);
+            culledGroups.add(groups[root]);
+            deactivated++;
+        }
+    }
+
+    /**
+     * Check if a body may be deactivated.
+     *
+     * @param body Body
+     * @return boolean, true for active dynamic and kinematic bodies
+     */
+    private boolean isCullable(Body body) {
+        return (body.getType() != BodyDef.BodyType.StaticBody) && body.isActive();
+    }
+
+    /**
+     * Join the groups of two bodies. Static and inactive bodies do not join groups.
+     *
+     * @param a Body
+     * @param b Body
+     */
+    private void union(Body a, Body b) {
+        if (!isCullable(a) || !isCullable(b)) {
+            return;
+        }
+        int rootA = find(indices.get(a, -1));
+        int rootB = find(indices.get(b, -1));
+        if ((rootA >= 0) && (rootB >= 0) && (rootA != rootB)) {
+            parents[rootA] = rootB;
+        }
+    }
+
+    /**
+     * Find the root of the group of a body, with path halving.
+     *
+     * @param i int, index of the body, -1 for none
+     * @return int, index of the root, -1 for none
+     */
+    private int find(int i) {
+        if (i < 0) {
+            return -1;
+        }
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Check if the bounds of a body overlap a region.
+     *
+     * @param body   Body
+     * @param left   float, in meters
+     * @param bottom float
+     * @param right  float
+     * @param top    float
+     * @return boolean
+     */
+    private boolean overlaps(Body body, float left, float bottom, float right, float top) {
+        setBounds(body);
+        return (minX <= right) && (maxX >= left) && (minY <= top) && (maxY >= bottom);
+    }
+
+    /**
+     * Get the bounds of the fixtures of a body in world coordinates.
+     *
+     * @param body Body
+     */
+    private void setBounds(Body body) {
+        Vector2 position = body.getPosition();
+        minX = position.x;
+        maxX = position.x;
+        minY = position.y;
+        maxY = position.y;
+        Transform transform = body.getTransform();
+        Array<Fixture> fixtures = body.getFixtureList();
+        for (int i = fixtures.size - 1; i >= 0; i--) {
+            Shape shape = fixtures.get(i).getShape();
+            switch (shape.getType()) {
+                case Circle:
+                    float radius = shape.getRadius();
+                    transform.mul(vertex.set(((CircleShape) shape).getPosition()));
+                    addPoint(vertex.x - radius, vertex.y - radius);
+                    addPoint(vertex.x + radius, vertex.y + radius);
+                    break;
+                case Polygon:
+                    PolygonShape polygon = (PolygonShape) shape;
+                    for (int j = polygon.getVertexCount() - 1; j >= 0; j--) {
+                        polygon.getVertex(j, vertex);
+                        addVertex(transform);
+                    }
+                    break;
+                case Edge:
+                    EdgeShape edge = (EdgeShape) shape;
+                    edge.getVertex1(vertex);
+                    addVertex(transform);
+                    edge.getVertex2(vertex);
+                    addVertex(transform);
+                    break;
+                case Chain:
+                    ChainShape chain = (ChainShape) shape;
+                    for (int j = chain.getVertexCount() - 1; j >= 0; j--) {
+                        chain.getVertex(j, vertex);
+                        addVertex(transform);
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Extend the bounds by the vertex in local coordinates.
+     *
+     * @param transform Transform, of the body
+     */
+    private void addVertex(Transform transform) {
+        transform.mul(vertex);
+        addPoint(vertex.x, vertex.y);
+    }
+
+    /**
+     * Extend the bounds by a point.
+     *
+     * @param x float, in meters
+     * @param y float
+     */
+    private void addPoint(float x, float y) {
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+}
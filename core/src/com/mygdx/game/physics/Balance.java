@@ -1,5 +1,6 @@
 package com.mygdx.game.physics;
 
+import com.badlogic.gdx.math.Vector2;
 import com.mygdx.game.utilities.Accelerometer;
 
 /**
@@ -9,6 +10,15 @@ import com.mygdx.game.utilities.Accelerometer;
 public class Balance extends Accelerometer {
     private Physics physics;
     public float scale;
+    private final Vector2 gravity=new Vector2();     // for the physics thread, in m/sec²
+    private boolean gravityQueued=false;
+    private final PhysicsCommand gravityCommand=new PhysicsCommand() {
+        @Override
+        public void apply(Physics physics) {
+            physics.world.setGravity(gravity);
+            gravityQueued=false;
+        }
+    };
 
     /**
      * Create an Balance object to set the gravity from accelerometer readings
@@ -34,8 +44,21 @@ public class Balance extends Accelerometer {
 
     /**
      * update the world gravity. Accelerometer_reading times scale gives pixels/sec²
+     * If physics runs on its own thread, then the physics thread sets the gravity after its next time step.
      */
     public void update(){
-        physics.world.setGravity(read().scl(scale/Physics.PIXELS_PER_METER));
+        Vector2 reading=read().scl(scale/Physics.PIXELS_PER_METER);
+        if (physics.isAsynchronous()){
+            synchronized (physics.transformsLock){
+                gravity.set(reading);
+                if (!gravityQueued){
+                    gravityQueued=true;
+                    physics.execute(gravityCommand);
+                }
+            }
+        }
+        else {
+            physics.world.setGravity(reading);
+        }
     }
 }
@@ -0,0 +1,326 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A quadtree of point masses for the Barnes-Hut approximation of pairwise interactions.
+ * Distant groups of masses act as a single mass at their center of mass,
+ * if the size of their cell divided by the distance is less than the opening angle.
+ * Cells containing the position are always opened, thus a mass never acts on itself, for any opening angle.
+ * The pairwise acceleration is strength*mass*d/(d²+softening²)^power,
+ * d is the vector from the position to the mass. Use power=1.5 for gravity, negative strength for repulsion.
+ * Nodes are in primitive arrays, reused for each build. Evaluation is thread safe.
+ */
+
+public class BarnesHutTree {
+    public float openingAngle = 0.5f;
+    public float strength = 1;
+    public float softening = 1;                  // in pixels, limits the interaction at short distances
+    public float power = 1.5f;
+    static final int MAX_DEPTH = 32;             // coincident masses end up in the same leaf
+    int[] firstChild;                            // index of first of four children, -1 for leaf
+    int[] leafMass;                              // index of the single mass of a leaf, -1 if none
+    float[] mass, massX, massY;                  // total mass and its center
+    float[] cellX, cellY, cellSize;              // left bottom corner and size of the square cell
+    int nodeCount;
+    float[] x, y, m;                             // positions and masses of the last build
+
+    /**
+     * Create a tree with place for some nodes.
+     */
+    public BarnesHutTree() {
+        allocate(64);
+    }
+
+    /**
+     * Make the node arrays larger, keeping the data.
+     *
+     * @param capacity int, number of nodes
+     */
+    private void allocate(int capacity) {
+        firstChild = resize(firstChild, capacity);
+        leafMass = resize(leafMass, capacity);
+        mass = resize(mass, capacity);
+        massX = resize(massX, capacity);
+        massY = resize(massY, capacity);
+        cellX = resize(cellX, capacity);
+        cellY = resize(cellY, capacity);
+        cellSize = resize(cellSize, capacity);
+    }
+
+    /**
+     * Get a larger copy of an int array.
+     *
+     * @param ints int[], to copy, may be null
+     * @param capacity int, new length
+     * @return int[], larger array with the data of the nodes
+     */
+    private int[] resize(int[] ints, int capacity) {
+        int[] newInts = new int[capacity];
+        if (ints != null) {
+            System.arraycopy(ints, 0, newInts, 0, nodeCount);
+        }
+        return newInts;
+    }
+
+    /**
+     * Get a larger copy of a float array.
+     *
+     * @param floats float[], to copy, may be null
+     * @param capacity int, new length
+     * @return float[], larger array with the data of the nodes
+     */
+    private float[] resize(float[] floats, int capacity) {
+        float[] newFloats = new float[capacity];
+        if (floats != null) {
+            System.arraycopy(floats, 0, newFloats, 0, nodeCount);
+        }
+        return newFloats;
+    }
+
+    /**
+     * Create a new empty leaf node.
+     *
+     * @param left float, x-coordinate of left bottom corner
+     * @param bottom float, y-coordinate of left bottom corner
+     * @param size float, of the square cell
+     * @return int, index of the node
+     */
+    private int newNode(float left, float bottom, float size) {
+        if (nodeCount == mass.length) {
+            allocate(2 * nodeCount);
+        }
+        int node = nodeCount++;
+        firstChild[node] = -1;
+        leafMass[node] = -1;
+        mass[node] = 0;
+        massX[node] = 0;
+        massY[node] = 0;
+        cellX[node] = left;
+        cellY[node] = bottom;
+        cellSize[node] = size;
+        return node;
+    }
+
+    /**
+     * Build the tree for point masses. Keeps references to the arrays for evaluation.
+     *
+     * @param x float[], x-coordinates of the masses
+     * @param y float[], y-coordinates of the masses
+     * @param m float[], the masses
+     * @param count int, number of masses
+     */
+    public void build(float[] x, float[] y, float[] m, int count) {
+        this.x = x;
+        this.y = y;
+        this.m = m;
+        nodeCount = 0;
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+        float size = 1.001f * Math.max(maxX - minX, maxY - minY) + 1;
+        newNode(minX, minY, size);
+        for (int i = 0; i < count; i++) {
+            insert(i);
+        }
+        for (int node = 0; node < nodeCount; node++) {      // sums to centers of mass
+            if (mass[node] > 0) {
+                massX[node] /= mass[node];
+                massY[node] /= mass[node];
+            }
+        }
+    }
+
+    /**
+     * Insert a mass, going down from the root. Splits occupied leaves.
+     *
+     * @param i int, index of the mass
+     */
+    private void insert(int i) {
+        float xi = x[i];
+        float yi = y[i];
+        float mi = m[i];
+        int node = 0;
+        int depth = 0;
+        while (true) {
+            if (firstChild[node] < 0) {
+                if ((leafMass[node] < 0) && (mass[node] == 0)) {      // empty leaf
+                    leafMass[node] = i;
+                    addMass(node, xi, yi, mi);
+                    return;
+                }
+                if (depth >= MAX_DEPTH) {              // too deep, combine
+                    leafMass[node] = -1;
+                    addMass(node, xi, yi, mi);
+                    return;
+                }
+                split(node);
+            }
+            addMass(node, xi, yi, mi);
+            node = child(node, xi, yi);
+            depth++;
+        }
+    }
+
+    /**
+     * Add a mass to the sums of a node.
+     *
+     * @param node int
+     * @param xi float, x-coordinate of the mass
+     * @param yi float, y-coordinate of the mass
+     * @param mi float, the mass
+     */
+    private void addMass(int node, float xi, float yi, float mi) {
+        mass[node] += mi;
+        massX[node] += mi * xi;
+        massY[node] += mi * yi;
+    }
+
+    /**
+     * Make four children for a leaf and move its single mass into the child it belongs to.
+     *
+     * @param node int
+     */
+    private void split(int node) {
+        float half = 0.5f * cellSize[node];
+        float left = cellX[node];
+        float bottom = cellY[node];
+        int first = newNode(left, bottom, half);
+        newNode(left + half, bottom, half);
+        newNode(left, bottom + half, half);
+        newNode(left + half, bottom + half, half);
+        firstChild[node] = first;
+        int j = leafMass[node];
+        leafMass[node] = -1;
+        int jChild = child(node, x[j], y[j]);
+        leafMass[jChild] = j;
+        addMass(jChild, x[j], y[j], m[j]);
+    }
+
+    /**
+     * Get the child of a node containing a position.
+     *
+     * @param node int, with children
+     * @param xi float, x-coordinate of the position
+     * @param yi float, y-coordinate of the position
+     * @return int, index of the child
+     */
+    private int child(int node, float xi, float yi) {
+        float half = 0.5f * cellSize[node];
+        int quadrant = 0;
+        if (xi >= cellX[node] + half) {
+            quadrant = 1;
+        }
+        if (yi >= cellY[node] + half) {
+            quadrant += 2;
+        }
+        return firstChild[node] + quadrant;
+    }
+
+    /**
+     * Add the acceleration at a position resulting from all masses. Masses at the same position are ignored.
+     * Thus a mass does not act on itself.
+     *
+     * @param acceleration Vector2, add to it
+     * @param px float, x-coordinate of the position
+     * @param py float, y-coordinate of the position
+     */
+    public void addAcceleration(Vector2 acceleration, float px, float py) {
+        if (nodeCount > 0) {
+            addAcceleration(0, acceleration, px, py, openingAngle * openingAngle, softening * softening);
+        }
+    }
+
+    /**
+     * Add the acceleration resulting from the masses of a node. Opens the node if it is too close
+     * or if its cell contains the position.
+     *
+     * @param node int
+     * @param acceleration Vector2, add to it
+     * @param px float, x-coordinate of the position
+     * @param py float, y-coordinate of the position
+     * @param openingAngle2 float, squared opening angle
+     * @param softening2 float, squared softening length
+     */
+    private void addAcceleration(int node, Vector2 acceleration, float px, float py,
+                                 float openingAngle2, float softening2) {
+        float nodeMass = mass[node];
+        if (nodeMass == 0) {
+            return;
+        }
+        float dx = massX[node] - px;
+        float dy = massY[node] - py;
+        float distance2 = dx * dx + dy * dy;
+        int first = firstChild[node];
+        float size = cellSize[node];
+        if ((first < 0) || ((size * size < openingAngle2 * distance2) && !contains(node, px, py))) {
+            if (distance2 > 0) {
+                float factor = strength * nodeMass * interaction(distance2 + softening2);
+                acceleration.x += factor * dx;
+                acceleration.y += factor * dy;
+            }
+        } else {
+            for (int c = first; c < first + 4; c++) {
+                addAcceleration(c, acceleration, px, py, openingAngle2, softening2);
+            }
+        }
+    }
+
+    /**
+     * Check if the cell of a node contains a position.
+     *
+     * @param node int
+     * @param px float, x-coordinate of the position
+     * @param py float, y-coordinate of the position
+     * @return boolean, true if the position lies in the cell
+     */
+    private boolean contains(int node, float px, float py) {
+        float size = cellSize[node];
+        float left = cellX[node];
+        float bottom = cellY[node];
+        return (px >= left) && (px <= left + size) && (py >= bottom) && (py <= bottom + size);
+    }
+
+    /**
+     * The dependence of the interaction on distance: 1/(squared distance)^power.
+     *
+     * @param distance2 float, squared distance plus squared softening
+     * @return float
+     */
+    private float interaction(float distance2) {
+        float inverse = 1f / distance2;
+        if (power == 1.5f) {
+            return inverse * (float) Math.sqrt(inverse);
+        } else if (power == 1) {
+            return inverse;
+        }
+        return (float) Math.pow(inverse, power);
+    }
+
+    /**
+     * Add the acceleration at a position summing over all pairs, without approximation. For comparison.
+     *
+     * @param acceleration Vector2, add to it
+     * @param px float, x-coordinate of the position
+     * @param py float, y-coordinate of the position
+     * @param count int, number of masses
+     */
+    public void addExactAcceleration(Vector2 acceleration, float px, float py, int count) {
+        float softening2 = softening * softening;
+        for (int i = 0; i < count; i++) {
+            float dx = x[i] - px;
+            float dy = y[i] - py;
+            float distance2 = dx * dx + dy * dy;
+            if (distance2 > 0) {
+                float factor = strength * m[i] * interaction(distance2 + softening2);
+                acceleration.x += factor * dx;
+                acceleration.y += factor * dy;
+            }
+        }
+    }
+}
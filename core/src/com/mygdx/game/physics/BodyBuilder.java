@@ -204,13 +204,28 @@ public class BodyBuilder {
     }
 
     /**
-     * Build the body without user data. Tells physics to update the bodies array.
+     * Build the body without user data. Adds it to the bodies array of physics.
      *
      * @return Body, a box2D body.
      */
     public Body build() {
-        physics.bodiesNeedUpdate = true;
-        return physics.world.createBody(bodyDef);
+        Body body = physics.world.createBody(bodyDef);
+        physics.addBody(body);
+        return body;
+    }
+
+    /**
+     * Build the body with user data. Adds it to the bodies array of physics.
+     * Registers the user data if it is a BodyFollower.
+     *
+     * @param userData Object, user data of the body
+     * @return Body, a box2D body.
+     */
+    public Body build(Object userData) {
+        Body body=build();
+        body.setUserData(userData);
+        physics.updateBodyFollower(body);
+        return body;
     }
 
     /**
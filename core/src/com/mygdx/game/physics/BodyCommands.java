@@ -0,0 +1,186 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectSet;
+
+/**
+ * Collects changes of bodies and joints: creation, destruction, setting transform and type.
+ * Physics applies them in one pass after each world step, where they are safe.
+ * Without new objects: The data of the changes goes into primitive arrays, reused for each pass.
+ * The registry of body followers and the bodies array of physics are patched,
+ * not rebuilt from the world.
+ * Can be used from the render thread while physics runs on its own thread.
+ */
+
+public class BodyCommands {
+    static final int CREATE = 0;
+    static final int DESTROY_BODY = 1;
+    static final int DESTROY_JOINT = 2;
+    static final int SET_TRANSFORM = 3;
+    static final int SET_TYPE = 4;
+    Physics physics;
+    IntArray operations;
+    Array<Object> targets;                       // body, joint or command for each operation
+    FloatArray transforms;                       // x, y and angle for each setTransform operation
+    Array<BodyDef.BodyType> bodyTypes;           // for each setType operation
+    ObjectSet<Body> destroyedBodies;
+
+    /**
+     * Create the command buffer of physics.
+     *
+     * @param physics Physics
+     */
+    public BodyCommands(Physics physics) {
+        this.physics = physics;
+        operations = new IntArray();
+        targets = new Array<Object>();
+        transforms = new FloatArray();
+        bodyTypes = new Array<BodyDef.BodyType>();
+        destroyedBodies = new ObjectSet<Body>();
+    }
+
+    /**
+     * Create bodies, joints or sprites later, using the builders of physics.
+     *
+     * @param creation PhysicsCommand, does the creation
+     */
+    public synchronized void create(PhysicsCommand creation) {
+        operations.add(CREATE);
+        targets.add(creation);
+    }
+
+    /**
+     * Destroy a body later. Removes its follower from the registry at once.
+     * Thus the follower may be reused before the body is destroyed.
+     * Deactivates the body at once, if not called during a world step. Then it does not collide anymore.
+     * Its user data stays until it is destroyed, for contact listeners.
+     *
+     * @param body Body
+     */
+    public void destroyBody(Body body) {
+        Object userData = body.getUserData();
+        if (userData instanceof BodyFollower) {
+            physics.removeBodyFollower((BodyFollower) userData);
+        }
+        physics.deactivateBody(body);
+        synchronized (this) {
+            operations.add(DESTROY_BODY);
+            targets.add(body);
+        }
+    }
+
+    /**
+     * Destroy a joint later. A mouse joint stops pulling at once, if not called during a world step.
+     *
+     * @param joint Joint
+     */
+    public void destroyJoint(Joint joint) {
+        if (joint instanceof MouseJoint) {
+            physics.disableMouseJoint((MouseJoint) joint);
+        }
+        synchronized (this) {
+            operations.add(DESTROY_JOINT);
+            targets.add(joint);
+        }
+    }
+
+    /**
+     * Set the position of the origin and angle of a body later. Box2D units.
+     *
+     * @param body Body
+     * @param x float, x-coordinate of the body origin in meters
+     * @param y float, y-coordinate of the body origin in meters
+     * @param angle float, in radians
+     */
+    public synchronized void setTransform(Body body, float x, float y, float angle) {
+        operations.add(SET_TRANSFORM);
+        targets.add(body);
+        transforms.add(x);
+        transforms.add(y);
+        transforms.add(angle);
+    }
+
+    /**
+     * Set the type of a body later. Updates the registry of body followers then.
+     *
+     * @param body Body
+     * @param bodyType BodyDef.BodyType, static, dynamic or kinematic
+     */
+    public synchronized void setType(Body body, BodyDef.BodyType bodyType) {
+        operations.add(SET_TYPE);
+        targets.add(body);
+        bodyTypes.add(bodyType);
+    }
+
+    /**
+     * Check if there are waiting changes.
+     *
+     * @return boolean, true if there are no changes
+     */
+    public synchronized boolean isEmpty() {
+        return operations.size == 0;
+    }
+
+    /**
+     * Do all changes in the order they were made. Changes made meanwhile are done too.
+     * Bodies are destroyed at the end, because box2D reuses the objects of destroyed bodies.
+     * Changes of bodies that will be destroyed are skipped.
+     * Removes destroyed bodies from the bodies array of physics in one pass.
+     * Call only outside a world step.
+     */
+    public synchronized void apply() {
+        if (operations.size == 0) {
+            return;
+        }
+        int transformIndex = 0;
+        int typeIndex = 0;
+        Body body;
+        for (int i = 0; i < operations.size; i++) {
+            Object target = targets.get(i);
+            switch (operations.get(i)) {
+                case CREATE:
+                    ((PhysicsCommand) target).apply(physics);
+                    break;
+                case DESTROY_BODY:
+                    destroyedBodies.add((Body) target);
+                    break;
+                case DESTROY_JOINT:
+                    physics.worldChanges++;
+                    physics.world.destroyJoint((Joint) target);
+                    break;
+                case SET_TRANSFORM:
+                    body = (Body) target;
+                    if (!destroyedBodies.contains(body)) {
+                        body.setTransform(transforms.get(transformIndex), transforms.get(transformIndex + 1),
+                                          transforms.get(transformIndex + 2));
+                    }
+                    transformIndex += 3;
+                    break;
+                case SET_TYPE:
+                    body = (Body) target;
+                    if (!destroyedBodies.contains(body)) {
+                        physics.setBodyType(body, bodyTypes.get(typeIndex));
+                    }
+                    typeIndex++;
+                    break;
+            }
+        }
+        if (destroyedBodies.size > 0) {
+            physics.removeBodies(destroyedBodies);
+            for (Body destroyedBody : destroyedBodies) {
+                physics.world.destroyBody(destroyedBody);
+            }
+            destroyedBodies.clear();
+        }
+        operations.clear();
+        targets.clear();
+        transforms.clear();
+        bodyTypes.clear();
+    }
+}
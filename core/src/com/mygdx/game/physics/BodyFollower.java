@@ -1,5 +1,7 @@
 package com.mygdx.game.physics;
 
+import com.badlogic.gdx.physics.box2d.Body;
+
 /**
  * For all sprite like objects that follow a box2D body
  */
@@ -13,8 +15,11 @@ public interface BodyFollower {
 
     /**
      * The follower reads new body data and updates previous data.
+     * Reports if it has to interpolate. This is false if the data did not change for two readings.
+     *
+     * @return boolean, true if the new data or the previous data has changed
      */
-    void readPositionAngleOfBody();
+    boolean readPositionAngleOfBody();
 
     /**
      * The follower interpolates between new and previous data
@@ -22,4 +27,48 @@ public interface BodyFollower {
      * @param progress float, between 0 (use previous) and 1 (use new data)
      */
     void interpolatePositionAngleOfBody(float progress);
+
+    /**
+     * Set position of the center of mass and angle of the follower from interpolated data. Does not change the body.
+     *
+     * @param centerX float, x-coordinate of the center of mass in pixels
+     * @param centerY float, y-coordinate of the center of mass in pixels
+     * @param angle float, angle in radians
+     */
+    void setInterpolatedPositionAngle(float centerX, float centerY, float angle);
+
+    /**
+     * Get the body that the follower follows.
+     *
+     * @return Body
+     */
+    Body getBody();
+
+    /**
+     * Get the x-coordinate of the local center of mass of the follower in pixels.
+     *
+     * @return float
+     */
+    float getOriginX();
+
+    /**
+     * Get the y-coordinate of the local center of mass of the follower in pixels.
+     *
+     * @return float
+     */
+    float getOriginY();
+
+    /**
+     * Set the index of the follower in the registry of physics.
+     *
+     * @param index int, index in the registry, -1 if not registered, less than -1 for followers of static bodies
+     */
+    void setFollowerIndex(int index);
+
+    /**
+     * Get the index of the follower in the registry of physics.
+     *
+     * @return int, index in the registry, -1 if not registered, less than -1 for followers of static bodies
+     */
+    int getFollowerIndex();
 }
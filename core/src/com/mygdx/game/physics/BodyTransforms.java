@@ -0,0 +1,228 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.physics.box2d.Transform;
+
+/**
+ * Positions of the centers of mass and angles of the bodies of registered body followers. Pixel units.
+ * Structure of arrays: Each quantity has its own contiguous float array.
+ * Data for previous and current physics time are double buffered. Interpolated data for graphics time
+ * results from a single loop over all followers. The followers read it when they need it.
+ * The index of a follower in the registry of physics is its index in these arrays.
+ * Reading a body needs only one call to box2D, getting its transform.
+ */
+
+public class BodyTransforms {
+    public float[] previousX, previousY, previousAngle;
+    public float[] currentX, currentY, currentAngle;
+    public float[] graphicsX, graphicsY, graphicsAngle;
+    boolean[] hasMoved;
+    int size = 0;
+    public int graphicsUpdate = 0;            // counts updates of the graphics data
+
+    /**
+     * Create with place for some followers.
+     */
+    public BodyTransforms() {
+        previousX = new float[16];
+        previousY = new float[16];
+        previousAngle = new float[16];
+        currentX = new float[16];
+        currentY = new float[16];
+        currentAngle = new float[16];
+        graphicsX = new float[16];
+        graphicsY = new float[16];
+        graphicsAngle = new float[16];
+        hasMoved = new boolean[16];
+    }
+
+    /**
+     * Get a larger copy of a float array.
+     *
+     * @param floats float[], to copy
+     * @param capacity int, new length
+     * @return float[], larger array with the data of the first size elements
+     */
+    private float[] resize(float[] floats, int capacity) {
+        float[] newFloats = new float[capacity];
+        System.arraycopy(floats, 0, newFloats, 0, size);
+        return newFloats;
+    }
+
+    /**
+     * Make the arrays larger if needed. Keeps the data.
+     *
+     * @param capacity int, number of followers
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity > hasMoved.length) {
+            int newCapacity = Math.max(capacity, 2 * hasMoved.length);
+            previousX = resize(previousX, newCapacity);
+            previousY = resize(previousY, newCapacity);
+            previousAngle = resize(previousAngle, newCapacity);
+            currentX = resize(currentX, newCapacity);
+            currentY = resize(currentY, newCapacity);
+            currentAngle = resize(currentAngle, newCapacity);
+            graphicsX = resize(graphicsX, newCapacity);
+            graphicsY = resize(graphicsY, newCapacity);
+            graphicsAngle = resize(graphicsAngle, newCapacity);
+            boolean[] newHasMoved = new boolean[newCapacity];
+            System.arraycopy(hasMoved, 0, newHasMoved, 0, size);
+            hasMoved = newHasMoved;
+        }
+    }
+
+    /**
+     * Add data for a new follower at the end. Reads its body if it has one, previous and current data are equal.
+     *
+     * @param follower BodyFollower, its index in the registry should be equal to the present size
+     */
+    public void add(BodyFollower follower) {
+        ensureCapacity(size + 1);
+        int index = size;
+        size++;
+        if (follower.getBody() != null) {
+            previousAngle[index] = 0;
+            read(index, follower);
+            set(index, currentX[index], currentY[index], currentAngle[index]);
+        } else {
+            set(index, 0, 0, 0);
+        }
+        hasMoved[index] = false;
+    }
+
+    /**
+     * Remove data of a follower. The data of the last follower takes its place, as in the registry.
+     *
+     * @param index int, index of the follower to remove
+     */
+    public void removeIndex(int index) {
+        size--;
+        if (index != size) {
+            previousX[index] = previousX[size];
+            previousY[index] = previousY[size];
+            previousAngle[index] = previousAngle[size];
+            currentX[index] = currentX[size];
+            currentY[index] = currentY[size];
+            currentAngle[index] = currentAngle[size];
+            graphicsX[index] = graphicsX[size];
+            graphicsY[index] = graphicsY[size];
+            graphicsAngle[index] = graphicsAngle[size];
+            hasMoved[index] = hasMoved[size];
+        }
+    }
+
+    /**
+     * Remove all data.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Exchange previous and current data arrays. Call before reading new data of all followers.
+     */
+    public void swap() {
+        float[] data = previousX;
+        previousX = currentX;
+        currentX = data;
+        data = previousY;
+        previousY = currentY;
+        currentY = data;
+        data = previousAngle;
+        previousAngle = currentAngle;
+        currentAngle = data;
+    }
+
+    /**
+     * Set previous, current and graphics data of a follower. For teleporting: there will be no interpolation.
+     *
+     * @param index int, index of the follower
+     * @param centerX float, x-coordinate of the center of mass
+     * @param centerY float, y-coordinate of the center of mass
+     * @param angle float, angle in radians
+     */
+    public void set(int index, float centerX, float centerY, float angle) {
+        previousX[index] = centerX;
+        currentX[index] = centerX;
+        graphicsX[index] = centerX;
+        previousY[index] = centerY;
+        currentY[index] = centerY;
+        graphicsY[index] = centerY;
+        previousAngle[index] = angle;
+        currentAngle[index] = angle;
+        graphicsAngle[index] = angle;
+    }
+
+    /**
+     * Read the transform of the body of a follower and store the center of mass and angle as current data.
+     * The angle does not jump by 2 pi with respect to the previous data, which makes interpolation simple.
+     * Reports if the follower has to interpolate, as for BodyFollower.readPositionAngleOfBody().
+     *
+     * @param index int, index of the follower
+     * @param follower BodyFollower
+     * @return boolean, true if current or previous data has changed
+     */
+    public boolean read(int index, BodyFollower follower) {
+        float[] vals = follower.getBody().getTransform().vals;
+        float cosAngle = vals[Transform.COS];
+        float sinAngle = vals[Transform.SIN];
+        float originX = follower.getOriginX();
+        float originY = follower.getOriginY();
+        float centerX = vals[Transform.POS_X] * Physics.PIXELS_PER_METER + cosAngle * originX - sinAngle * originY;
+        float centerY = vals[Transform.POS_Y] * Physics.PIXELS_PER_METER + sinAngle * originX + cosAngle * originY;
+        float angle = (float) Math.atan2(sinAngle, cosAngle);
+        float lastAngle = previousAngle[index];
+        angle += MathUtils.PI2 * Math.round((lastAngle - angle) / MathUtils.PI2);
+        currentX[index] = centerX;
+        currentY[index] = centerY;
+        currentAngle[index] = angle;
+        boolean moves = (centerX != previousX[index]) || (centerY != previousY[index]) || (angle != lastAngle);
+        boolean hasToInterpolate = moves || hasMoved[index];
+        hasMoved[index] = moves;
+        return hasToInterpolate;
+    }
+
+    /**
+     * Interpolate linearly between previous and current data of all followers to get the graphics data.
+     * A single loop over the arrays. Followers read the result later.
+     *
+     * @param progress float, between 0 (use previous) and 1 (use new data)
+     */
+    public void interpolate(float progress) {
+        float[] pX = previousX, pY = previousY, pAngle = previousAngle;
+        float[] cX = currentX, cY = currentY, cAngle = currentAngle;
+        float[] gX = graphicsX, gY = graphicsY, gAngle = graphicsAngle;
+        for (int i = 0; i < size; i++) {
+            gX[i] = pX[i] + progress * (cX[i] - pX[i]);
+            gY[i] = pY[i] + progress * (cY[i] - pY[i]);
+            gAngle[i] = pAngle[i] + progress * (cAngle[i] - pAngle[i]);
+        }
+        graphicsUpdate++;
+    }
+
+    /**
+     * Interpolate linearly between previous and current data of one follower
+     * and set its position and angle immediately.
+     *
+     * @param index int, index of the follower
+     * @param progress float, between 0 (use previous) and 1 (use new data)
+     * @param follower BodyFollower
+     */
+    public void interpolate(int index, float progress, BodyFollower follower) {
+        graphicsX[index] = previousX[index] + progress * (currentX[index] - previousX[index]);
+        graphicsY[index] = previousY[index] + progress * (currentY[index] - previousY[index]);
+        graphicsAngle[index] = previousAngle[index] + progress * (currentAngle[index] - previousAngle[index]);
+        setGraphicsData(index, follower);
+    }
+
+    /**
+     * Set position and angle of a follower from the graphics data.
+     *
+     * @param index int, index of the follower
+     * @param follower BodyFollower
+     */
+    public void setGraphicsData(int index, BodyFollower follower) {
+        follower.setInterpolatedPositionAngle(graphicsX[index], graphicsY[index], graphicsAngle[index]);
+    }
+}
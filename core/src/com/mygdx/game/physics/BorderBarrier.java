@@ -1,13 +1,20 @@
 package com.mygdx.game.physics;
 
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.viewport.Viewport;
 import com.mygdx.game.Images.Chain;
+import com.mygdx.game.Images.Edge;
 import com.mygdx.game.utilities.Device;
 import com.mygdx.game.utilities.Resizable;
 
 /**
  * A barrier around the visible screen to stop physical sprites.
+ * The first barrier is built at once if the world can be changed, thus there is a border from the first step on.
+ * Later resize events only note the new size. The barrier is rebuilt once after the next world step,
+ * and only if the size has changed. Thus many resize events do not destroy the contacts again and again.
+ * With segments each side is a separate edge fixture and only the changed sides are rebuilt.
  */
 
 public class BorderBarrier implements Resizable{
@@ -16,6 +23,14 @@ public class BorderBarrier implements Resizable{
     public Physics physics;
     public Chain borderShape;
     public Body borderBody;
+    public boolean useSegments=false;
+    private float builtWidth=-1, builtHeight=-1;
+    private float requestedWidth, requestedHeight;
+    private boolean rebuildPending=false;
+    private PhysicsCommand rebuild;
+    private float[] segmentCoordinates=new float[0];      // of the corners of the segments that are built
+    private Array<Fixture> segmentFixtures=new Array<Fixture>();
+    private Edge edge=new Edge();
 
     public BorderBarrier(Device device, Viewport viewport,Physics physics){
         device.addResizable(this);
@@ -26,15 +41,112 @@ public class BorderBarrier implements Resizable{
         borderShape.setIsLoop();
         physics.bodyBuilder.setPosition(0,0);
         borderBody=physics.bodyBuilder.buildStaticBody(null);
+        rebuild=new PhysicsCommand() {
+            @Override
+            public void apply(Physics physics) {
+                rebuild();
+            }
+        };
     }
 
+    /**
+     * Use a separate edge fixture for each side of the border. Only the sides that change are rebuilt.
+     * Takes effect at the next resize.
+     *
+     * @param useSegments boolean, true for separate edges, false for a single chain
+     * @return this, for chaining
+     */
+    public BorderBarrier setSegments(boolean useSegments){
+        this.useSegments=useSegments;
+        builtWidth=-1;
+        return this;
+    }
+
+    /**
+     * Note the new size of the world. Build the first barrier at once if the world can be changed now.
+     * Else rebuild it after the next world step. Repeated events before that step give only one rebuild.
+     *
+     * @param width int, of the screen, not used
+     * @param height int, of the screen, not used
+     */
     @Override
     public void resize(int width, int height) {
-        borderShape.set(0,0,viewport.getWorldWidth(),0,viewport.getWorldWidth(),
-                viewport.getWorldHeight(),0,viewport.getWorldHeight());
-        physics.fixtureBuilder.destroyFixtures(borderBody);
-        physics.fixtureBuilder.build(borderBody,borderShape);
+        synchronized (this) {
+            requestedWidth=viewport.getWorldWidth();
+            requestedHeight=viewport.getWorldHeight();
+            if ((builtWidth < 0) && !rebuildPending && physics.canCreateBodies()) {
+                rebuild();
+                return;
+            }
+            if (rebuildPending) {
+                return;
+            }
+            rebuildPending=true;
+        }
+        physics.bodyCommands.create(rebuild);
     }
 
+    /**
+     * Rebuild the barrier for the last requested size, if it has changed.
+     */
+    private void rebuild(){
+        float width, height;
+        synchronized (this) {
+            width=requestedWidth;
+            height=requestedHeight;
+            rebuildPending=false;
+        }
+        if ((width==builtWidth)&&(height==builtHeight)){
+            return;
+        }
+        float[] coordinates={0,0,width,0,width,height,0,height};
+        borderShape.set(coordinates);
+        if (useSegments){
+            if (borderBody.getFixtureList().size!=segmentFixtures.size){
+                physics.fixtureBuilder.destroyFixtures(borderBody);
+                segmentFixtures.clear();
+                segmentCoordinates=new float[0];
+            }
+            buildSegments(coordinates);
+        }
+        else {
+            physics.fixtureBuilder.destroyFixtures(borderBody);
+            segmentFixtures.clear();
+            physics.shapeCache.remove(borderShape);
+            physics.fixtureBuilder.build(borderBody,borderShape);
+        }
+        builtWidth=width;
+        builtHeight=height;
+    }
 
+    /**
+     * Build the edges of a closed border. Edges that do not change are kept.
+     *
+     * @param coordinates float[], (x,y) pairs of the corners
+     */
+    private void buildSegments(float[] coordinates){
+        int length=coordinates.length;
+        boolean sameCorners=(segmentCoordinates.length==length);
+        for (int i=0;i<length;i+=2){
+            int j=(i+2)%length;
+            int segment=i/2;
+            if (sameCorners&&(coordinates[i]==segmentCoordinates[i])&&(coordinates[i+1]==segmentCoordinates[i+1])
+                    &&(coordinates[j]==segmentCoordinates[j])&&(coordinates[j+1]==segmentCoordinates[j+1])){
+                continue;
+            }
+            if (segment<segmentFixtures.size){
+                borderBody.destroyFixture(segmentFixtures.get(segment));
+            }
+            edge.set(coordinates[i],coordinates[i+1],coordinates[j],coordinates[j+1]);
+            physics.shapeCache.remove(edge);
+            Fixture fixture=physics.fixtureBuilder.buildOne(borderBody,edge);
+            if (segment<segmentFixtures.size){
+                segmentFixtures.set(segment,fixture);
+            }
+            else {
+                segmentFixtures.add(fixture);
+            }
+        }
+        segmentCoordinates=coordinates;
+    }
 }
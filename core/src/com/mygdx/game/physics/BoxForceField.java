@@ -0,0 +1,51 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Constant acceleration inside a rectangle, as wind or a conveyor zone.
+ * Near the border it falls off linearly to zero over a given width.
+ */
+
+public class BoxForceField extends ForceField {
+    public float accelerationX, accelerationY;
+    public float falloffWidth;
+
+    /**
+     * Create a box field.
+     *
+     * @param x float, x-coordinate of the left bottom corner in pixels
+     * @param y float, y-coordinate of the left bottom corner in pixels
+     * @param width float, in pixels
+     * @param height float, in pixels
+     * @param accelerationX float, x-component of the acceleration inside, pixels/sec²
+     * @param accelerationY float, y-component of the acceleration inside, pixels/sec²
+     * @param falloffWidth float, width of the border region where the acceleration decreases, pixels, 0 for none
+     */
+    public BoxForceField(float x, float y, float width, float height,
+                         float accelerationX, float accelerationY, float falloffWidth) {
+        bounds.set(x, y, width, height);
+        this.accelerationX = accelerationX;
+        this.accelerationY = accelerationY;
+        this.falloffWidth = falloffWidth;
+    }
+
+    /**
+     * Add the acceleration of the box. Decreases near the border.
+     *
+     * @param acceleration Vector2, in pixels/sec², add to it
+     * @param x float, x-coordinate of the position in pixels
+     * @param y float, y-coordinate of the position in pixels
+     */
+    @Override
+    public void addAcceleration(Vector2 acceleration, float x, float y) {
+        float factor = 1;
+        if (falloffWidth > 0) {
+            float distance = Math.min(Math.min(x - bounds.x, bounds.x + bounds.width - x),
+                                      Math.min(y - bounds.y, bounds.y + bounds.height - y));
+            factor = Math.max(0, Math.min(1, distance / falloffWidth));
+        }
+        acceleration.x += factor * accelerationX;
+        acceleration.y += factor * accelerationY;
+    }
+}
@@ -0,0 +1,291 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.WorldManifold;
+
+/**
+ * Collects begin, end and impulse events of contacts during the world steps in a ring buffer of preallocated arrays.
+ * Nothing is created per event. Consume the events once per frame:
+ * while (contactEvents.next()) { ... use type, categoryA, userDataA, fixtureUserDataA, normalX, ... }
+ * The events are written on the thread of the world step and read on another thread without locks,
+ * for a single writer and a single reader. If the buffer is full, then new events are dropped and counted.
+ * Only pairs of fixtures matching the category filter are recorded.
+ * Positions are in pixels, impulses in box2D units. The category bits and user data of the fixtures and
+ * the user data of their bodies (usually the sprites) are copied when the event happens.
+ * The fixture fields are valid only until the world changes: Box2D reuses the objects of destroyed fixtures.
+ * Another contact listener may be chained, it gets all callbacks.
+ */
+
+public class ContactEvents implements ContactListener {
+    public static final int BEGIN = 0;
+    public static final int END = 1;
+    public static final int IMPULSE = 2;
+    public ContactListener listener;                // chained listener, may be null
+    public boolean recordImpulses = false;
+    public float minImpulse = 0;                    // smaller impulses are not recorded
+    public short categoryBitsA = -1;                // filter: one fixture matches A and the other matches B
+    public short categoryBitsB = -1;
+    public int dropped = 0;                         // events lost because the buffer was full
+    final int capacity;
+    final int[] types;
+    final Fixture[] fixturesA, fixturesB;
+    final short[] categoriesA, categoriesB;
+    final Object[] userDatasA, userDatasB;
+    final Object[] fixtureUserDatasA, fixtureUserDatasB;
+    final float[] data;                             // normal, impulse, point count and two points per event
+    static final int DATA = 8;
+    private volatile long written = 0;
+    private volatile long read = 0;
+    // the current event after next()
+    public int type;
+    public Fixture fixtureA, fixtureB;              // valid only until bodies or fixtures are destroyed or created
+    public short categoryA, categoryB;              // category bits of the fixtures
+    public Object userDataA, userDataB;             // of the bodies
+    public Object fixtureUserDataA, fixtureUserDataB;
+    public float normalX, normalY;                  // from A to B
+    public float impulse;                           // sum of the normal impulses
+    public int pointCount;
+    public float pointX0, pointY0, pointX1, pointY1;
+
+    /**
+     * Create the ring buffer.
+     *
+     * @param capacity int, maximum number of waiting events
+     */
+    public ContactEvents(int capacity) {
+        this.capacity = capacity;
+        types = new int[capacity];
+        fixturesA = new Fixture[capacity];
+        fixturesB = new Fixture[capacity];
+        categoriesA = new short[capacity];
+        categoriesB = new short[capacity];
+        userDatasA = new Object[capacity];
+        userDatasB = new Object[capacity];
+        fixtureUserDatasA = new Object[capacity];
+        fixtureUserDatasB = new Object[capacity];
+        data = new float[DATA * capacity];
+    }
+
+    /**
+     * Record only contacts between fixtures with given category bits, set with FixtureBuilder.setCategoryBits.
+     * One fixture has to share a bit with categoryBitsA and the other with categoryBitsB. Use -1 for any fixture.
+     *
+     * @param categoryBitsA short
+     * @param categoryBitsB short
+     * @return this, for chaining
+     */
+    public ContactEvents setFilter(short categoryBitsA, short categoryBitsB) {
+        this.categoryBitsA = categoryBitsA;
+        this.categoryBitsB = categoryBitsB;
+        return this;
+    }
+
+    /**
+     * Record post solve impulses of touching contacts, for every step.
+     *
+     * @param recordImpulses boolean, true to record
+     * @param minImpulse float, smaller sums of normal impulses are not recorded
+     * @return this, for chaining
+     */
+    public ContactEvents setImpulses(boolean recordImpulses, float minImpulse) {
+        this.recordImpulses = recordImpulses;
+        this.minImpulse = minImpulse;
+        return this;
+    }
+
+    /**
+     * Check if a pair of fixtures passes the filter. Swaps the fixtures if needed.
+     *
+     * @param contact Contact
+     * @return int, 1 if fixture A of the contact matches A, -1 if it matches B, 0 if not recorded
+     */
+    private int match(Contact contact) {
+        short bitsA = contact.getFixtureA().getFilterData().categoryBits;
+        short bitsB = contact.getFixtureB().getFilterData().categoryBits;
+        if (((bitsA & categoryBitsA) != 0) && ((bitsB & categoryBitsB) != 0)) {
+            return 1;
+        }
+        if (((bitsB & categoryBitsA) != 0) && ((bitsA & categoryBitsB) != 0)) {
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Write an event into the buffer.
+     *
+     * @param type    int, BEGIN, END or IMPULSE
+     * @param contact Contact
+     * @param order   int, 1 or -1 to swap the fixtures
+     * @param impulse float
+     */
+    private void put(int type, Contact contact, int order, float impulse) {
+        long index = written;
+        if (index - read >= capacity) {
+            dropped++;
+            return;
+        }
+        int i = (int) (index % capacity);
+        Fixture a = contact.getFixtureA();
+        Fixture b = contact.getFixtureB();
+        if (order < 0) {
+            Fixture swap = a;
+            a = b;
+            b = swap;
+        }
+        types[i] = type;
+        fixturesA[i] = a;
+        fixturesB[i] = b;
+        categoriesA[i] = a.getFilterData().categoryBits;
+        categoriesB[i] = b.getFilterData().categoryBits;
+        userDatasA[i] = a.getBody().getUserData();
+        userDatasB[i] = b.getBody().getUserData();
+        fixtureUserDatasA[i] = a.getUserData();
+        fixtureUserDatasB[i] = b.getUserData();
+        int j = DATA * i;
+        int count = 0;
+        if (type != END) {
+            WorldManifold manifold = contact.getWorldManifold();
+            Vector2 normal = manifold.getNormal();
+            data[j] = order * normal.x;
+            data[j + 1] = order * normal.y;
+            count = manifold.getNumberOfContactPoints();
+            Vector2[] points = manifold.getPoints();
+            for (int k = 0; k < count; k++) {
+                data[j + 4 + 2 * k] = points[k].x * Physics.PIXELS_PER_METER;
+                data[j + 5 + 2 * k] = points[k].y * Physics.PIXELS_PER_METER;
+            }
+        } else {
+            data[j] = 0;
+            data[j + 1] = 0;
+        }
+        data[j + 2] = impulse;
+        data[j + 3] = count;
+        written = index + 1;                    // publishes the event to the reader
+    }
+
+    /**
+     * Advance to the next event and copy it into the public fields of the current event.
+     *
+     * @return boolean, false if there are no more events
+     */
+    public boolean next() {
+        long index = read;
+        if (index >= written) {
+            return false;
+        }
+        int i = (int) (index % capacity);
+        type = types[i];
+        fixtureA = fixturesA[i];
+        fixtureB = fixturesB[i];
+        categoryA = categoriesA[i];
+        categoryB = categoriesB[i];
+        userDataA = userDatasA[i];
+        userDataB = userDatasB[i];
+        fixtureUserDataA = fixtureUserDatasA[i];
+        fixtureUserDataB = fixtureUserDatasB[i];
+        fixturesA[i] = null;
+        fixturesB[i] = null;
+        userDatasA[i] = null;
+        userDatasB[i] = null;
+        fixtureUserDatasA[i] = null;
+        fixtureUserDatasB[i] = null;
+        int j = DATA * i;
+        normalX = data[j];
+        normalY = data[j + 1];
+        impulse = data[j + 2];
+        pointCount = (int) data[j + 3];
+        pointX0 = data[j + 4];
+        pointY0 = data[j + 5];
+        pointX1 = data[j + 6];
+        pointY1 = data[j + 7];
+        read = index + 1;                        // frees the slot for the writer
+        return true;
+    }
+
+    /**
+     * Get the number of waiting events.
+     *
+     * @return int
+     */
+    public int size() {
+        return (int) (written - read);
+    }
+
+    /**
+     * Forget all waiting events. Use on the reading thread.
+     */
+    public void clear() {
+        long end = written;
+        for (long index = read; index < end; index++) {
+            int i = (int) (index % capacity);
+            fixturesA[i] = null;
+            fixturesB[i] = null;
+            userDatasA[i] = null;
+            userDatasB[i] = null;
+            fixtureUserDatasA[i] = null;
+            fixtureUserDatasB[i] = null;
+        }
+        read = end;
+        fixtureA = null;
+        fixtureB = null;
+        userDataA = null;
+        userDataB = null;
+        fixtureUserDataA = null;
+        fixtureUserDataB = null;
+    }
+
+    @Override
+    public void beginContact(Contact contact) {
+        int order = match(contact);
+        if (order != 0) {
+            put(BEGIN, contact, order, 0);
+        }
+        if (listener != null) {
+            listener.beginContact(contact);
+        }
+    }
+
+    @Override
+    public void endContact(Contact contact) {
+        int order = match(contact);
+        if (order != 0) {
+            put(END, contact, order, 0);
+        }
+        if (listener != null) {
+            listener.endContact(contact);
+        }
+    }
+
+    @Override
+    public void preSolve(Contact contact, Manifold oldManifold) {
+        if (listener != null) {
+            listener.preSolve(contact, oldManifold);
+        }
+    }
+
+    @Override
+    public void postSolve(Contact contact, ContactImpulse contactImpulse) {
+        if (recordImpulses) {
+            float[] normalImpulses = contactImpulse.getNormalImpulses();
+            float sum = 0;
+            for (int k = contactImpulse.getCount() - 1; k >= 0; k--) {
+                sum += normalImpulses[k];
+            }
+            if (sum >= minImpulse) {
+                int order = match(contact);
+                if (order != 0) {
+                    put(IMPULSE, contact, order, sum);
+                }
+            }
+        }
+        if (listener != null) {
+            listener.postSolve(contact, contactImpulse);
+        }
+    }
+}
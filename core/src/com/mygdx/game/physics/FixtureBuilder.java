@@ -9,10 +9,13 @@ import com.mygdx.game.Images.Shape2DCollection;
 
 /**
  * Attach fixtures to a body. Set data and shape of the fixture.
+ * Can use a cache of box2D shapes, converting the same Shape2D object only once.
  */
 
 public class FixtureBuilder {
     public FixtureDef fixtureDef;
+    public ShapeCache shapeCache;
+    public boolean cacheShapes = false;
 
     /**
      * Create a fixtureBuilder with default fixtureDef data.
@@ -22,6 +25,28 @@ public class FixtureBuilder {
         reset();
     }
 
+    /**
+     * Create a fixtureBuilder with default fixtureDef data and a cache for box2D shapes.
+     *
+     * @param shapeCache ShapeCache
+     */
+    public FixtureBuilder(ShapeCache shapeCache) {
+        this();
+        this.shapeCache = shapeCache;
+    }
+
+    /**
+     * Use the shape cache (if there is one) for converting Shape2D shapes.
+     * Do not change the Shape2D objects then, or remove them from the cache.
+     *
+     * @param cacheShapes boolean, true for using the cache
+     * @return this, for chaining
+     */
+    public FixtureBuilder setCacheShapes(boolean cacheShapes) {
+        this.cacheShapes = cacheShapes;
+        return this;
+    }
+
     /**
      * Reset the fixtureDef with default data.
      *
@@ -118,6 +143,7 @@ public class FixtureBuilder {
 
     /**
      * Build and return one fixture, attached to given body with a Shape2D Shape and userData.
+     * Takes the box2D shape from the shape cache if cacheShapes is true.
      *
      * @param body Body, to attach the fixture
      * @param shape2D Shape2D, of the fixture
@@ -125,11 +151,14 @@ public class FixtureBuilder {
      * @return Fixture, the fixture that has been attached
      */
     public Fixture buildOne(Body body, Shape2D shape2D, Object userData){
-        Shape shape = Box2DShape.ofShape2D(shape2D);
+        boolean useCache = cacheShapes && (shapeCache != null);
+        Shape shape = useCache ? shapeCache.get(shape2D) : Box2DShape.ofShape2D(shape2D);
         fixtureDef.shape=shape;
         Fixture fixture = body.createFixture(fixtureDef);
         fixture.setUserData(userData);
-        shape.dispose();
+        if (!useCache) {
+            shape.dispose();
+        }
         return fixture;
     }
 
@@ -0,0 +1,22 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * A local acceleration field with bounded support. Pixel units.
+ * Outside its bounds it has no effect. Add it to a Forces object, which visits only bodies inside the bounds.
+ */
+
+abstract public class ForceField {
+    public Rectangle bounds = new Rectangle();      // no acceleration outside
+
+    /**
+     * Add the acceleration of the field at a position inside the bounds.
+     *
+     * @param acceleration Vector2, in pixels/sec², add to it
+     * @param x float, x-coordinate of the position in pixels
+     * @param y float, y-coordinate of the position in pixels
+     */
+    abstract public void addAcceleration(Vector2 acceleration, float x, float y);
+}
@@ -2,17 +2,49 @@ package com.mygdx.game.physics;
 
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.utils.Array;
 
-import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * make that all dynamical bodies have the an acceleration depending on their center of mass position
+ * Additionally local force fields with bounded support act on the bodies inside their bounds.
+ * The centers of the bodies are sorted into a uniform grid. A field visits only the cells overlapping its bounds.
+ * All fields are evaluated in one pass, each body gets one force.
+ * Two phases: First the accelerations are calculated from the centers of the bodies.
+ * Setting a parallelThreshold, for many bodies this is done in parallel on a fork-join pool.
+ * Then the forces are applied serially.
+ * For parallel calculation, calculateAcceleration has to be thread safe (pure).
  */
 
 abstract public class Forces {
     private Physics physics;
     private Vector2 position=new Vector2();
     private Vector2 acceleration=new Vector2();
+    public Array<ForceField> forceFields=new Array<ForceField>(true,16,ForceField.class);
+    public boolean useMass=false;                 // true: force is acceleration times mass
+    public float cellSize=100;                    // of the grid in pixels
+    static final int MAX_CELLS=128;               // for each direction
+    Body[] bodies=new Body[16];                   // dynamic bodies
+    float[] centerX=new float[16], centerY=new float[16];
+    float[] accelerationX=new float[16], accelerationY=new float[16];
+    float[] masses=new float[16];                 // only if useMass
+    int bodyCount;
+    int[] cellStart=new int[2];                   // index of the first body in a cell, sorted by cells
+    int[] cellBodies=new int[16];                 // indices of bodies, sorted by cells
+    int cellsX, cellsY;
+    float gridX, gridY, cellWidth, cellHeight;
+    public int parallelThreshold=Integer.MAX_VALUE;   // minimum number of bodies for parallel calculation, off by default
+    public int chunkSize=256;                     // bodies for a single task of parallel calculation
+    static ForkJoinPool forkJoinPool;
+    private final PhysicsCommand stepCommand=new PhysicsCommand() {
+        @Override
+        public void apply(Physics physics) {
+            applyAccelerations();
+        }
+    };
 
 
     /**
@@ -26,27 +58,324 @@ abstract public class Forces {
 
     /**
      * calculates the acceleration in pixel/sec² as a function of center of body (pixel lengths)
+     * Set it to zero if only force fields are needed.
+     * If parallelThreshold is set, it is called from several threads at once, then it has to be thread safe:
+     * use only the arguments and data that does not change during the calculation.
      *
      * @param acceleration Vector2 acceleration to calculate
      * @param position Vector2 position in pixels (graphics units)
      */
     abstract public void calculateAcceleration(Vector2 acceleration, Vector2 position);
 
+    /**
+     * add a local force field
+     *
+     * @param forceField ForceField
+     * @return this, for chaining
+     */
+    public Forces addForceField(ForceField forceField){
+        forceFields.add(forceField);
+        return this;
+    }
+
+    /**
+     * remove a local force field
+     *
+     * @param forceField ForceField
+     */
+    public void removeForceField(ForceField forceField){
+        forceFields.removeValue(forceField,true);
+    }
 
     /**
      * update body forces in m/sec² from calculation of acceleration
      * converts units, takes into account inversion of y-axis for acceleration ???
+     * Only dynamic bodies. Bodies without acceleration are not woken up.
+     * Call once for each frame. If physics runs on its own thread, then the forces are
+     * calculated and applied by the physics thread before each of its steps instead.
      */
     public void update(){
+        if (physics.isAsynchronous()){
+            physics.addStepCommand(stepCommand);
+        }
+        else {
+            physics.removeStepCommand(stepCommand);
+            applyAccelerations();
+        }
+    }
+
+    /**
+     * calculate the accelerations and apply the forces to the bodies
+     */
+    private void applyAccelerations(){
+        gatherBodies();
+        prepareAccelerations();
+        calculateAccelerations();
+        applyForces();
+    }
+
+    /**
+     * prepare the calculation of accelerations, after getting the bodies
+     * override to use the positions and masses of all bodies, as for pairwise interactions
+     */
+    public void prepareAccelerations(){}
+
+    /**
+     * get the dynamic bodies and their centers of mass in pixels, and their masses if needed
+     */
+    private void gatherBodies(){
+        physics.updateBodies();
+        Body[] allBodies=physics.bodies.items;
+        int length=physics.bodies.size;
+        if (bodies.length<length){
+            int capacity=Math.max(length,2*bodies.length);
+            bodies=new Body[capacity];
+            centerX=new float[capacity];
+            centerY=new float[capacity];
+            accelerationX=new float[capacity];
+            accelerationY=new float[capacity];
+            masses=new float[capacity];
+            cellBodies=new int[capacity];
+        }
+        bodyCount=0;
         Body body;
-        float inverseScale=1f/Physics.PIXELS_PER_METER;
-        Iterator<Body> bodies=physics.bodies.iterator();
-        while (bodies.hasNext()){
-            body=bodies.next();
-            position.set(body.getWorldCenter()).scl(Physics.PIXELS_PER_METER);
+        Vector2 center;
+        for (int i=0;i<length;i++){
+            body=allBodies[i];
+            if (body.getType()==BodyDef.BodyType.DynamicBody){
+                center=body.getWorldCenter();
+                bodies[bodyCount]=body;
+                centerX[bodyCount]=center.x*Physics.PIXELS_PER_METER;
+                centerY[bodyCount]=center.y*Physics.PIXELS_PER_METER;
+                if (useMass){
+                    masses[bodyCount]=body.getMass();
+                }
+                bodyCount++;
+            }
+        }
+    }
+
+    /**
+     * calculate the accelerations of the bodies: global acceleration plus the force fields
+     * parallel if there are more bodies than the threshold
+     */
+    private void calculateAccelerations(){
+        boolean parallel=bodyCount>=parallelThreshold;
+        if (parallel){
+            getForkJoinPool().invoke(new GlobalAccelerationTask(0,bodyCount));
+        }
+        else {
+            calculateGlobalAccelerations(0,bodyCount,acceleration,position);
+        }
+        if ((forceFields.size>0)&&(bodyCount>0)){
+            buildGrid();
+            if (parallel){
+                getForkJoinPool().invoke(new FieldAccelerationTask(0,cellsY));
+            }
+            else {
+                addFieldAccelerations(0,cellsY,acceleration);
+            }
+        }
+    }
+
+    /**
+     * get the pool for parallel calculations, shared by all forces
+     *
+     * @return ForkJoinPool
+     */
+    private static synchronized ForkJoinPool getForkJoinPool(){
+        if (forkJoinPool==null){
+            forkJoinPool=new ForkJoinPool();
+        }
+        return forkJoinPool;
+    }
+
+    /**
+     * calculate the global acceleration for a range of bodies
+     *
+     * @param from int, index of first body
+     * @param to int, index after last body
+     * @param acceleration Vector2, for intermediate results
+     * @param position Vector2, for intermediate results
+     */
+    private void calculateGlobalAccelerations(int from,int to,Vector2 acceleration,Vector2 position){
+        for (int i=from;i<to;i++){
+            position.set(centerX[i],centerY[i]);
             calculateAcceleration(acceleration,position);
-            acceleration.scl(inverseScale);
-            body.applyForceToCenter(acceleration,true);
+            accelerationX[i]=acceleration.x;
+            accelerationY[i]=acceleration.y;
+        }
+    }
+
+    /**
+     * parallel calculation of the global acceleration for a range of bodies, splitting it into chunks
+     */
+    private class GlobalAccelerationTask extends RecursiveAction {
+        private static final long serialVersionUID=1L;
+        int from,to;
+
+        GlobalAccelerationTask(int from,int to){
+            this.from=from;
+            this.to=to;
+        }
+
+        @Override
+        protected void compute(){
+            if (to-from<=chunkSize){
+                calculateGlobalAccelerations(from,to,new Vector2(),new Vector2());
+            }
+            else {
+                int middle=(from+to)/2;
+                invokeAll(new GlobalAccelerationTask(from,middle),new GlobalAccelerationTask(middle,to));
+            }
+        }
+    }
+
+    /**
+     * parallel calculation of the force fields for a range of rows of grid cells, splitting it
+     * rows have different bodies, thus tasks do not interfere
+     */
+    private class FieldAccelerationTask extends RecursiveAction {
+        private static final long serialVersionUID=1L;
+        int from,to;
+
+        FieldAccelerationTask(int from,int to){
+            this.from=from;
+            this.to=to;
+        }
+
+        @Override
+        protected void compute(){
+            if ((to-from==1)||(cellStart[to*cellsX]-cellStart[from*cellsX]<=chunkSize)){
+                addFieldAccelerations(from,to,new Vector2());
+            }
+            else {
+                int middle=(from+to)/2;
+                invokeAll(new FieldAccelerationTask(from,middle),new FieldAccelerationTask(middle,to));
+            }
+        }
+    }
+
+    /**
+     * sort the bodies into a uniform grid covering all centers, counting sort
+     */
+    private void buildGrid(){
+        float minX=Float.MAX_VALUE,minY=Float.MAX_VALUE;
+        float maxX=-Float.MAX_VALUE,maxY=-Float.MAX_VALUE;
+        for (int i=0;i<bodyCount;i++){
+            minX=Math.min(minX,centerX[i]);
+            maxX=Math.max(maxX,centerX[i]);
+            minY=Math.min(minY,centerY[i]);
+            maxY=Math.max(maxY,centerY[i]);
+        }
+        gridX=minX;
+        gridY=minY;
+        cellWidth=Math.max(cellSize,1.001f*(maxX-minX)/MAX_CELLS);
+        cellHeight=Math.max(cellSize,1.001f*(maxY-minY)/MAX_CELLS);
+        cellsX=Math.max(1,(int)((maxX-minX)/cellWidth)+1);
+        cellsY=Math.max(1,(int)((maxY-minY)/cellHeight)+1);
+        int cellCount=cellsX*cellsY;
+        if (cellStart.length<cellCount+1){
+            cellStart=new int[cellCount+1];
+        }
+        for (int c=0;c<=cellCount;c++){
+            cellStart[c]=0;
+        }
+        for (int i=0;i<bodyCount;i++){
+            cellStart[cell(i)+1]++;
+        }
+        for (int c=0;c<cellCount;c++){
+            cellStart[c+1]+=cellStart[c];
+        }
+        for (int i=0;i<bodyCount;i++){
+            int c=cell(i);
+            cellBodies[cellStart[c]]=i;
+            cellStart[c]++;
+        }
+        for (int c=cellCount;c>0;c--){                      // restore the starts
+            cellStart[c]=cellStart[c-1];
+        }
+        cellStart[0]=0;
+    }
+
+    /**
+     * get the index of the grid cell of a body
+     *
+     * @param i int, index of the body
+     * @return int, index of its cell
+     */
+    private int cell(int i){
+        int ix=Math.min(cellsX-1,(int)((centerX[i]-gridX)/cellWidth));
+        int iy=Math.min(cellsY-1,(int)((centerY[i]-gridY)/cellHeight));
+        return ix+cellsX*iy;
+    }
+
+    /**
+     * add the accelerations of all force fields for the bodies in a range of rows of grid cells
+     *
+     * @param rowFrom int, first row of cells
+     * @param rowTo int, row after the last row
+     * @param acceleration Vector2, for intermediate results
+     */
+    private void addFieldAccelerations(int rowFrom,int rowTo,Vector2 acceleration){
+        ForceField[] fields=forceFields.items;
+        for (int i=forceFields.size-1;i>=0;i--){
+            addFieldAccelerations(fields[i],rowFrom,rowTo,acceleration);
+        }
+    }
+
+    /**
+     * add the accelerations of a force field for the bodies in its bounds and a range of rows of grid cells
+     *
+     * @param field ForceField
+     * @param rowFrom int, first row of cells
+     * @param rowTo int, row after the last row
+     * @param acceleration Vector2, for intermediate results
+     */
+    private void addFieldAccelerations(ForceField field,int rowFrom,int rowTo,Vector2 acceleration){
+        float left=field.bounds.x;
+        float right=left+field.bounds.width;
+        float bottom=field.bounds.y;
+        float top=bottom+field.bounds.height;
+        int ixMin=Math.max(0,(int)Math.floor((left-gridX)/cellWidth));
+        int ixMax=Math.min(cellsX-1,(int)Math.floor((right-gridX)/cellWidth));
+        int iyMin=Math.max(rowFrom,(int)Math.floor((bottom-gridY)/cellHeight));
+        int iyMax=Math.min(rowTo-1,(int)Math.floor((top-gridY)/cellHeight));
+        float x,y;
+        int i;
+        for (int iy=iyMin;iy<=iyMax;iy++){
+            for (int ix=ixMin;ix<=ixMax;ix++){
+                int c=ix+cellsX*iy;
+                for (int k=cellStart[c];k<cellStart[c+1];k++){
+                    i=cellBodies[k];
+                    x=centerX[i];
+                    y=centerY[i];
+                    if ((x>=left)&&(x<=right)&&(y>=bottom)&&(y<=top)){
+                        acceleration.set(accelerationX[i],accelerationY[i]);
+                        field.addAcceleration(acceleration,x,y);
+                        accelerationX[i]=acceleration.x;
+                        accelerationY[i]=acceleration.y;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * apply the forces to the bodies, converting units
+     */
+    private void applyForces(){
+        float inverseScale=1f/Physics.PIXELS_PER_METER;
+        Body body;
+        float scale;
+        for (int i=0;i<bodyCount;i++){
+            if ((accelerationX[i]!=0)||(accelerationY[i]!=0)){
+                body=bodies[i];
+                scale=useMass?inverseScale*masses[i]:inverseScale;
+                acceleration.set(accelerationX[i],accelerationY[i]).scl(scale);
+                body.applyForceToCenter(acceleration,true);
+            }
+            bodies[i]=null;
         }
     }
 }
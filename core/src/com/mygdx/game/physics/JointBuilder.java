@@ -246,7 +246,7 @@ public class JointBuilder {
     }
 
     /**
-     * Set the oscillation frequency of the joint, must be less than 0.5/TIME_STEP.
+     * Set the oscillation frequency of the joint, must be less than 0.5/time step of physics.
      *
      * @param f float, oscillation frequency, set 0 for rigid joint (no softness)
      * @return this, for chaining
@@ -531,7 +531,7 @@ public class JointBuilder {
         pulleyJointDef.lengthA=lengthA;
         pulleyJointDef.lengthB=lengthB;
         pulleyJointDef.ratio=ratio;
-        return (PulleyJoint) physics.world.createJoint(pulleyJointDef);
+        return (PulleyJoint) physics.createJoint(pulleyJointDef);
     }
 
     /**
@@ -561,7 +561,7 @@ public class JointBuilder {
         frictionJointDef.localAnchorB.set(localAnchorB);
         frictionJointDef.maxForce=maxForce;
         frictionJointDef.maxTorque=maxTorque;
-        return (FrictionJoint) physics.world.createJoint(prismaticJointDef);
+        return (FrictionJoint) physics.createJoint(prismaticJointDef);
     }
 
     /**
@@ -597,7 +597,7 @@ public class JointBuilder {
         prismaticJointDef.upperTranslation=upperTranslation;
         prismaticJointDef.maxMotorForce=maxForce;
         prismaticJointDef.motorSpeed=motorSpeed;
-        return (PrismaticJoint) physics.world.createJoint(prismaticJointDef);
+        return (PrismaticJoint) physics.createJoint(prismaticJointDef);
     }
 
     /**
@@ -626,7 +626,7 @@ public class JointBuilder {
         ropeJointDef.localAnchorA.set(localAnchorA);
         ropeJointDef.localAnchorB.set(localAnchorB);
         ropeJointDef.maxLength=maxLength;
-        return (RopeJoint) physics.world.createJoint(ropeJointDef);
+        return (RopeJoint) physics.createJoint(ropeJointDef);
     }
 
     /**
@@ -662,7 +662,7 @@ public class JointBuilder {
         revoluteJointDef.upperAngle=upperAngle;
         revoluteJointDef.maxMotorTorque=maxTorque;
         revoluteJointDef.motorSpeed=motorSpeed;
-        return (RevoluteJoint) physics.world.createJoint(revoluteJointDef);
+        return (RevoluteJoint) physics.createJoint(revoluteJointDef);
     }
 
         /**
@@ -698,7 +698,7 @@ public class JointBuilder {
         }
         distanceJointDef.dampingRatio=dampingRatio;
         distanceJointDef.frequencyHz=frequencyHz;
-        return  (DistanceJoint) physics.world.createJoint(distanceJointDef);
+        return  (DistanceJoint) physics.createJoint(distanceJointDef);
     }
 
     /**
@@ -733,7 +733,7 @@ public class JointBuilder {
         mouseJointDef.target.set(target).scl(1f/Physics.PIXELS_PER_METER);
         mouseJointDef.dampingRatio=dampingRatio;
         mouseJointDef.frequencyHz=frequencyHz;
-        return  (MouseJoint) physics.world.createJoint(mouseJointDef);
+        return  (MouseJoint) physics.createJoint(mouseJointDef);
     }
 
     /**
@@ -18,36 +18,92 @@ public class KinematicTranslate
 
     /**
      * determine relative position of touch to body, start motion
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
      *
      * @param sprite   ExtensibleSprite
      * @param touchPosition Vector2
      */
     @Override
     public void touchBegin(ExtensibleSprite sprite, Vector2 touchPosition) {
-        PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        final PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        if (physicalSprite.physics.isAsynchronous()){
+            physicalSprite.physics.execute(new PhysicsCommand() {
+                @Override
+                public void apply(Physics physics) {
+                    beginMove(physicalSprite);
+                }
+            });
+        }
+        else {
+            beginMove(physicalSprite);
+        }
+    }
+
+    /**
+     * start motion at the present position of the body
+     *
+     * @param physicalSprite PhysicalSprite
+     */
+    private void beginMove(PhysicalSprite physicalSprite){
         bodyTargetPosition.set(Physics.getPosition(physicalSprite.body));
         moving=true;
     }
 
     /**
      * determine the (target) position of body at end of next time steps
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
+     *
      * @param sprite        ExtensibleSprite
      * @param touchPosition Vector2
      * @param deltaTouchPosition Vector2
      */
     @Override
     public void touchDrag(ExtensibleSprite sprite, Vector2 touchPosition, Vector2 deltaTouchPosition) {
-        bodyTargetPosition.add(deltaTouchPosition);
+        PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        if (physicalSprite.physics.isAsynchronous()){
+            final float deltaX=deltaTouchPosition.x;
+            final float deltaY=deltaTouchPosition.y;
+            physicalSprite.physics.execute(new PhysicsCommand() {
+                @Override
+                public void apply(Physics physics) {
+                    bodyTargetPosition.add(deltaX,deltaY);
+                }
+            });
+        }
+        else {
+            bodyTargetPosition.add(deltaTouchPosition);
+        }
     }
 
     /**
      * stop the body
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
+     *
      *  @param sprite   ExtensibleSprite
      *
      */
     @Override
     public void touchEnd(ExtensibleSprite sprite) {
-        PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        final PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        if (physicalSprite.physics.isAsynchronous()){
+            physicalSprite.physics.execute(new PhysicsCommand() {
+                @Override
+                public void apply(Physics physics) {
+                    endMove(physicalSprite);
+                }
+            });
+        }
+        else {
+            endMove(physicalSprite);
+        }
+    }
+
+    /**
+     * stop the body
+     *
+     * @param physicalSprite PhysicalSprite
+     */
+    private void endMove(PhysicalSprite physicalSprite){
         moving=false;
         physicalSprite.body.setLinearVelocity(0,0);
     }
@@ -55,7 +111,7 @@ public class KinematicTranslate
     @Override
     public void update(PhysicalSprite sprite) {
         if (moving) {
-            velocity.set(bodyTargetPosition).sub(Physics.getPosition(sprite.body)).scl(1f / Physics.TIME_STEP);
+            velocity.set(bodyTargetPosition).sub(Physics.getPosition(sprite.body)).scl(1f / sprite.physics.getTimeStep());
             Physics.setVelocity(sprite.body, velocity);
         }
     }
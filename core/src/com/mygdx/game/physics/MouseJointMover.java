@@ -3,6 +3,9 @@ package com.mygdx.game.physics;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
 import com.mygdx.game.Sprite.ExtensibleSprite;
 import com.mygdx.game.Sprite.SpriteTouchBegin;
 import com.mygdx.game.Sprite.SpriteTouchDrag;
@@ -14,19 +17,107 @@ import com.mygdx.game.Sprite.SpriteTouchEnd;
  * A stiff joint of frequencyHz=0 crashes. Thus FrequencyHz has to be greater than 0.
  * A large damping is better, thus dampingRatio=1 (critical)
  * Attention: Static bodies have localCenter=0, always.
+ * With reuseJoints each sprite keeps its joint in the mouseJointPool of physics. Touching it again
+ * enables the joint, nothing is created or destroyed. These joints pull at the center of mass,
+ * keeping the offset to the touch position, thus dragging does not rotate the sprite.
+ * With a physics thread the touches go into a queue of primitive arrays, applied in order by a single reused
+ * command after the next time step. Drags that follow each other are coalesced. Nothing is created per touch.
  */
 
 public class MouseJointMover implements SpriteTouchBegin,SpriteTouchDrag,SpriteTouchEnd {
     private MouseJoint mouseJoint;
+    private PhysicalSprite movedSprite;
     public float maxAcceleration=5000;
     public float frequencyHz=20;
     public float dampingRatio=1;
     private Vector2 target=new Vector2();
     public boolean useStaticBodies=false;
+    public boolean reuseJoints=false;
+    private float offsetX, offsetY;                // from touch to center of mass for reused joints, in meters
+    private static final int BEGIN=0;
+    private static final int DRAG=1;
+    private static final int END=2;
+    private boolean touchesQueued=false;
+    private final IntArray queuedTypes=new IntArray();
+    private final Array<PhysicalSprite> queuedSprites=new Array<PhysicalSprite>();
+    private final FloatArray queuedPositions=new FloatArray();     // x and y of each touch
+    private final IntArray appliedTypes=new IntArray();
+    private final Array<PhysicalSprite> appliedSprites=new Array<PhysicalSprite>();
+    private final FloatArray appliedPositions=new FloatArray();
+    private final PhysicsCommand touchCommand=new PhysicsCommand() {
+        @Override
+        public void apply(Physics physics) {
+            applyTouches();
+        }
+    };
+
+    /**
+     * Queue a touch for the physics thread. A drag after a drag replaces its position.
+     * Physics applies the touches after its next time step, with a single command.
+     *
+     * @param type int, BEGIN, DRAG or END
+     * @param physicalSprite PhysicalSprite
+     * @param x float, x-coordinate of touch in pixels, or of the target in meters for drags
+     * @param y float, y-coordinate
+     */
+    private void queueTouch(int type, PhysicalSprite physicalSprite, float x, float y){
+        synchronized (this) {
+            int last=queuedTypes.size-1;
+            if ((type==DRAG)&&(last>=0)&&(queuedTypes.get(last)==DRAG)){
+                queuedPositions.set(2*last,x);
+                queuedPositions.set(2*last+1,y);
+                return;
+            }
+            queuedTypes.add(type);
+            queuedSprites.add(physicalSprite);
+            queuedPositions.add(x);
+            queuedPositions.add(y);
+            if (touchesQueued){
+                return;
+            }
+            touchesQueued=true;
+        }
+        physicalSprite.physics.execute(touchCommand);
+    }
+
+    /**
+     * Apply the queued touches in order, on the physics thread. They are copied under lock and applied without.
+     */
+    private void applyTouches(){
+        synchronized (this) {
+            appliedTypes.clear();
+            appliedTypes.addAll(queuedTypes);
+            appliedSprites.clear();
+            appliedSprites.addAll(queuedSprites);
+            appliedPositions.clear();
+            appliedPositions.addAll(queuedPositions);
+            queuedTypes.clear();
+            queuedSprites.clear();
+            queuedPositions.clear();
+            touchesQueued=false;
+        }
+        for (int i=0;i<appliedTypes.size;i++){
+            float x=appliedPositions.get(2*i);
+            float y=appliedPositions.get(2*i+1);
+            switch (appliedTypes.get(i)){
+                case BEGIN:
+                    beginMove(appliedSprites.get(i),x,y);
+                    break;
+                case DRAG:
+                    setTarget(x,y);
+                    break;
+                case END:
+                    endMove(appliedSprites.get(i));
+                    break;
+            }
+        }
+        appliedSprites.clear();
+    }
 
     /**
      * Start move: Create the mouseJoint and set target.
      * Sets parameters of JointBuilder to be safe from side effects.
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
      *
      * @param sprite   ExtensibleSprite, actually PhysicalSprite
      * @param touchPosition Vector2, the position of touch (in pixels)
@@ -34,41 +125,125 @@ public class MouseJointMover implements SpriteTouchBegin,SpriteTouchDrag,SpriteT
     @Override
     public void touchBegin(ExtensibleSprite sprite, Vector2 touchPosition){
         PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        if (physicalSprite.physics.isAsynchronous()){
+            queueTouch(BEGIN,physicalSprite,touchPosition.x,touchPosition.y);
+        }
+        else {
+            beginMove(physicalSprite,touchPosition.x,touchPosition.y);
+        }
+    }
+
+    /**
+     * Create the mouseJoint and set target, or enable the parked joint of the sprite.
+     *
+     * @param physicalSprite PhysicalSprite
+     * @param touchX float, x-coordinate of touch (in pixels)
+     * @param touchY float, y-coordinate of touch (in pixels)
+     */
+    private void beginMove(PhysicalSprite physicalSprite, float touchX, float touchY){
         if (useStaticBodies){
-            physicalSprite.body.setType(BodyDef.BodyType.DynamicBody);
+            physicalSprite.physics.setBodyType(physicalSprite.body,BodyDef.BodyType.DynamicBody);
         }
+        movedSprite=physicalSprite;
+        if (reuseJoints){
+            mouseJoint=physicalSprite.physics.mouseJointPool.obtain(physicalSprite,maxAcceleration,frequencyHz,dampingRatio);
+            Vector2 center=physicalSprite.body.getWorldCenter();
+            offsetX=center.x-touchX/Physics.PIXELS_PER_METER;
+            offsetY=center.y-touchY/Physics.PIXELS_PER_METER;
+            return;
+        }
+        offsetX=0;
+        offsetY=0;
         JointBuilder jointBuilder=physicalSprite.physics.jointBuilder;
         jointBuilder.setFrequencyHz(frequencyHz);
         jointBuilder.setDampingRatio(dampingRatio);
         jointBuilder.setMaxAcceleration(maxAcceleration);
         jointBuilder.setCollideConnected(false);
-        mouseJoint=jointBuilder.buildMouseJoint(physicalSprite,touchPosition);
+        target.set(touchX,touchY);
+        mouseJoint=jointBuilder.buildMouseJoint(physicalSprite,target);
     }
 
     /**
      * Move the sprite, update the mouseJoint target.
      * To keep it from disappearing use a static body with a ChainShape fixture around the screen.
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
+     * Drags that come one after the other before that step give only the last target.
      *
      * @param sprite        ExtensibleSprite, actually PhysicalSprite
      * @param touchPosition Vector2, the average position of touch (in pixels)
      * @param deltaTouchPosition Vector2, the change in the position of touch (in pixels)
      */
     public void touchDrag(ExtensibleSprite sprite, Vector2 touchPosition, Vector2 deltaTouchPosition) {
-        target.set(deltaTouchPosition).scl(0.5f).add(touchPosition).scl(1f/Physics.PIXELS_PER_METER);
-        mouseJoint.setTarget(target);
+        PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
+        float targetX=(touchPosition.x+0.5f*deltaTouchPosition.x)/Physics.PIXELS_PER_METER;
+        float targetY=(touchPosition.y+0.5f*deltaTouchPosition.y)/Physics.PIXELS_PER_METER;
+        if (physicalSprite.physics.isAsynchronous()){
+            queueTouch(DRAG,physicalSprite,targetX,targetY);
+        }
+        else {
+            setTarget(targetX,targetY);
+        }
+    }
+
+    /**
+     * Set the target of the mouseJoint. Adds the offset of the center of mass for reused joints.
+     * Nothing happens if the joint has been destroyed together with the body of the sprite.
+     *
+     * @param targetX float, x-coordinate of the target (in meters)
+     * @param targetY float, y-coordinate of the target (in meters)
+     */
+    private void setTarget(float targetX, float targetY){
+        if (reuseJoints&&(movedSprite!=null)&&(movedSprite.mouseJoint!=mouseJoint)){
+            mouseJoint=null;
+        }
+        if (mouseJoint!=null) {
+            target.set(targetX+offsetX, targetY+offsetY);
+            mouseJoint.setTarget(target);
+        }
     }
 
     /**
      * End the move: destroy the mouseJoint.
+     * If physics runs on its own thread, then the physics thread does this after its next time step.
+     *
      * @param sprite   ExtensibleSprite
      */
     public void touchEnd(ExtensibleSprite sprite){
         PhysicalSprite physicalSprite=(PhysicalSprite) sprite;
-        physicalSprite.physics.world.destroyJoint(mouseJoint);
+        if (physicalSprite.physics.isAsynchronous()){
+            queueTouch(END,physicalSprite,0,0);
+        }
+        else {
+            endMove(physicalSprite);
+        }
+    }
+
+    /**
+     * Destroy the mouseJoint, or park it for reuse. Stop the body or make it static again.
+     * Without physics thread the sprite gets the last physics data before it becomes static.
+     *
+     * @param physicalSprite PhysicalSprite
+     */
+    private void endMove(PhysicalSprite physicalSprite){
+        if (reuseJoints&&(physicalSprite.mouseJoint!=mouseJoint)){
+            mouseJoint=null;                          // destroyed together with the body
+        }
+        if (mouseJoint==null){
+            return;
+        }
+        if (reuseJoints){
+            physicalSprite.physics.mouseJointPool.free(physicalSprite);
+        }
+        else {
+            physicalSprite.physics.destroyJoint(mouseJoint);
+        }
         mouseJoint=null;
+        movedSprite=null;
         if (useStaticBodies){
-            physicalSprite.body.setType(BodyDef.BodyType.StaticBody);
-            physicalSprite.interpolatePositionAngleOfBody(1);
+            if (!physicalSprite.physics.isAsynchronous()) {
+                physicalSprite.interpolatePositionAngleOfBody(1);
+            }
+            physicalSprite.physics.setBodyType(physicalSprite.body,BodyDef.BodyType.StaticBody);
         }
         else {
             physicalSprite.body.setAngularVelocity(0);
@@ -0,0 +1,137 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Keeps the mouse joints of touched sprites alive between touches. A joint of box2D cannot move to
+ * another body, thus each sprite keeps its own joint. A free joint is parked with maxForce=0, it then
+ * does nothing and does not keep its body awake. The next touch of the sprite enables it again with setTarget.
+ * Joints grab the body at its center of mass, because the anchor of a mouse joint cannot be changed.
+ * Only the sprites of the last parked joints keep them, older joints are destroyed.
+ * The counters show how often joints have been created, reused and destroyed.
+ * Use it from the physics thread if there is one, but parked sprites may be reset on any thread.
+ */
+
+public class MouseJointPool {
+    Physics physics;
+    public int capacity = 16;                   // maximum number of parked joints
+    public int created = 0;
+    public int reused = 0;
+    public int destroyed = 0;
+    private Array<PhysicalSprite> parkedSprites = new Array<PhysicalSprite>(true, 16, PhysicalSprite.class);   // oldest first
+    private Vector2 target = new Vector2();
+
+    /**
+     * Create the pool for the joints of physics.
+     *
+     * @param physics Physics
+     */
+    public MouseJointPool(Physics physics) {
+        this.physics = physics;
+    }
+
+    /**
+     * Get an enabled mouse joint for a sprite, attached at its center of mass. Reuses its parked joint
+     * or creates a new one with the jointBuilder. The target is at the center of mass.
+     *
+     * @param sprite          PhysicalSprite
+     * @param maxAcceleration float, maximum acceleration of the body, in meters/sec²
+     * @param frequencyHz     float, has to be greater than zero
+     * @param dampingRatio    float
+     * @return MouseJoint
+     */
+    public synchronized MouseJoint obtain(PhysicalSprite sprite, float maxAcceleration, float frequencyHz, float dampingRatio) {
+        Body body = sprite.body;
+        MouseJoint joint = sprite.mouseJoint;
+        if (joint != null) {
+            parkedSprites.removeValue(sprite, true);
+            joint.setMaxForce(body.getMass() * maxAcceleration);
+            joint.setFrequency(frequencyHz);
+            joint.setDampingRatio(dampingRatio);
+            joint.setTarget(body.getWorldCenter());
+            reused++;
+        } else {
+            JointBuilder jointBuilder = physics.jointBuilder;
+            jointBuilder.setFrequencyHz(frequencyHz);
+            jointBuilder.setDampingRatio(dampingRatio);
+            jointBuilder.setMaxAcceleration(maxAcceleration);
+            jointBuilder.setCollideConnected(false);
+            target.set(body.getWorldCenter()).scl(Physics.PIXELS_PER_METER);
+            joint = jointBuilder.buildMouseJoint(body, target);
+            sprite.mouseJoint = joint;
+            created++;
+        }
+        return joint;
+    }
+
+    /**
+     * Park the joint of a sprite for its next touch. Destroys the oldest parked joint if there are too many.
+     *
+     * @param sprite PhysicalSprite
+     */
+    public synchronized void free(PhysicalSprite sprite) {
+        if (sprite.mouseJoint == null) {
+            return;
+        }
+        sprite.mouseJoint.setMaxForce(0);
+        if (!parkedSprites.contains(sprite, true)) {
+            parkedSprites.add(sprite);
+        }
+        while (parkedSprites.size > capacity) {
+            destroy(parkedSprites.removeIndex(0));
+        }
+    }
+
+    /**
+     * Destroy the joint of a sprite, at once or after the next step.
+     *
+     * @param sprite PhysicalSprite
+     */
+    private void destroy(PhysicalSprite sprite) {
+        physics.destroyJoint(sprite.mouseJoint);
+        sprite.mouseJoint = null;
+        destroyed++;
+    }
+
+    /**
+     * Forget the joint of a sprite whose body is destroyed. Box2D destroys the joint together with the body.
+     *
+     * @param sprite PhysicalSprite
+     */
+    synchronized void forget(PhysicalSprite sprite) {
+        parkedSprites.removeValue(sprite, true);
+        sprite.mouseJoint = null;
+        destroyed++;
+    }
+
+    /**
+     * Destroy all parked joints.
+     */
+    public synchronized void clear() {
+        for (int i = parkedSprites.size - 1; i >= 0; i--) {
+            destroy(parkedSprites.items[i]);
+        }
+        parkedSprites.clear();
+    }
+
+    /**
+     * Get the number of parked joints.
+     *
+     * @return int
+     */
+    public synchronized int parkedCount() {
+        return parkedSprites.size;
+    }
+
+    /**
+     * Set the counters of created, reused and destroyed joints to zero.
+     */
+    public void resetCounters() {
+        created = 0;
+        reused = 0;
+        destroyed = 0;
+    }
+}
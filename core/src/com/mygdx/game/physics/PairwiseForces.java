@@ -0,0 +1,53 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Pairwise interactions between all dynamic bodies, as mutual gravity or repulsion of charges.
+ * Uses the Barnes-Hut approximation: the quadtree is rebuilt from the centers and masses of the bodies
+ * before each calculation. Costs about n log(n) instead of n².
+ * The acceleration of a body is strength*mass*d/(d²+softening²)^power summed over the other bodies,
+ * d is the vector to the other body. Pixel units. Forces are accelerations times mass.
+ * Override calculateAcceleration and call super to add an external field.
+ * Force fields of Forces act too.
+ */
+
+public class PairwiseForces extends Forces {
+    public BarnesHutTree tree=new BarnesHutTree();
+
+    /**
+     * create pairwise interactions
+     *
+     * @param physics Physics
+     * @param strength float, positive attracts, negative repels
+     * @param softening float, length in pixels limiting the interaction at short distances
+     * @param openingAngle float, accuracy of the approximation, 0 is exact, typically 0.3 to 1
+     */
+    public PairwiseForces(Physics physics,float strength,float softening,float openingAngle){
+        super(physics);
+        useMass=true;
+        tree.strength=strength;
+        tree.softening=softening;
+        tree.openingAngle=openingAngle;
+    }
+
+    /**
+     * build the tree from the centers and masses of the bodies
+     */
+    @Override
+    public void prepareAccelerations(){
+        tree.build(centerX,centerY,masses,bodyCount);
+    }
+
+    /**
+     * calculate the acceleration from all other bodies. Thread safe.
+     *
+     * @param acceleration Vector2 acceleration to calculate
+     * @param position Vector2 position in pixels (graphics units)
+     */
+    @Override
+    public void calculateAcceleration(Vector2 acceleration, Vector2 position){
+        acceleration.setZero();
+        tree.addAcceleration(acceleration,position.x,position.y);
+    }
+}
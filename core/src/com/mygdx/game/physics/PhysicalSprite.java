@@ -1,8 +1,10 @@
 package com.mygdx.game.physics;
 
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
 import com.mygdx.game.Sprite.ExtensibleSprite;
 
 /**
@@ -16,22 +18,72 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
     public float anglePreviousPhysicsTime, angleCurrentPhysicsTime;
     public Vector2 centerMassPreviousPhysicsTime =new Vector2();
     public Vector2 centerMassCurrentPhysicsTime =new Vector2();
+    int followerIndex=-1;
+    boolean hasMoved=false;                 // data changed at last reading
+    int graphicsUpdate=-1;                  // update of the body transforms of physics that has been read
+    MouseJoint mouseJoint;                  // of the mouseJointPool, enabled or parked
+    PhysicsCommand bodyCreation;            // creates the body later, null if there is none waiting
 
     /**
      * Reset the sprite and put it back in the pool. Free the body !
+     * The body is destroyed at once if possible. Else it is deactivated and destroyed after the next world step,
+     * keeping its user data. The sprite may be reused before. A waiting creation of its body is canceled.
      */
     @Override
     public void reset(){
         super.reset();
         centerMassPreviousPhysicsTime.setZero();
         centerMassCurrentPhysicsTime.setZero();
+        hasMoved=false;
+        graphicsUpdate=-1;
+        if ((physics!=null)&&physics.isAsynchronous()){
+            synchronized (physics.transformsLock){           // bodyCommands creates bodies with this lock
+                bodyCreation=null;
+            }
+        }
+        else {
+            bodyCreation=null;
+        }
         if (body!=null) {
-            physics.world.destroyBody(body);
+            if (mouseJoint!=null){
+                physics.mouseJointPool.forget(this);
+            }
+            physics.removeBodyFollower(this);
+            physics.destroyBody(body);
             body=null;
-            physics.bodiesNeedUpdate = true;
         }
     }
 
+    /**
+     * Get the body of the sprite.
+     *
+     * @return Body
+     */
+    @Override
+    public Body getBody(){
+        return body;
+    }
+
+    /**
+     * Set the index of the sprite in the registry of body followers.
+     *
+     * @param index int, index in the registry, -1 if not registered
+     */
+    @Override
+    public void setFollowerIndex(int index){
+        followerIndex=index;
+    }
+
+    /**
+     * Get the index of the sprite in the registry of body followers.
+     *
+     * @return int, index in the registry, -1 if not registered
+     */
+    @Override
+    public int getFollowerIndex(){
+        return followerIndex;
+    }
+
     /**
      * Put the sprite back to the pool. The pool for physical sprites. Calls reset in the process.
      */
@@ -55,6 +107,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * be at the sprites "origin" for rotation. Convert lengths.
      * Sets the body data used for interpolation.
      * Note that the "position" of the body rotates around the center of mass.
+     * If physics runs on its own thread then the body is changed by a command after the next time step.
      *
      * Attention: For static bodies worldCenter==position, localCenter==0.
      */
@@ -63,7 +116,42 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
         anglePreviousPhysicsTime = angleCurrentPhysicsTime;
         getWorldOrigin(centerMassCurrentPhysicsTime);
         centerMassPreviousPhysicsTime.set(centerMassCurrentPhysicsTime);
-        Physics.setCenterOfMassAngle(body, centerMassCurrentPhysicsTime, angleCurrentPhysicsTime,getOriginX(),getOriginY());
+        if (physics.isAsynchronous()){
+            final float centerX=centerMassCurrentPhysicsTime.x;
+            final float centerY=centerMassCurrentPhysicsTime.y;
+            final float angle=angleCurrentPhysicsTime;
+            final float originX=getOriginX();
+            final float originY=getOriginY();
+            final Body movedBody=body;
+            physics.execute(new PhysicsCommand() {
+                @Override
+                public void apply(Physics physics) {
+                    if (movedBody==body) {                  // the sprite might have been freed meanwhile
+                        setBodyCenterOfMassAngle(centerX,centerY,angle,originX,originY);
+                    }
+                }
+            });
+        }
+        else {
+            setBodyCenterOfMassAngle(centerMassCurrentPhysicsTime.x,centerMassCurrentPhysicsTime.y,
+                                     angleCurrentPhysicsTime,getOriginX(),getOriginY());
+        }
+    }
+
+    /**
+     * Set the center of mass and angle of the body and its data in the body transforms of physics.
+     *
+     * @param centerX float, x-coordinate of center of mass
+     * @param centerY float, y-coordinate of center of mass
+     * @param angle float
+     * @param originX float, x-coordinate of the local origin of the sprite in pixels
+     * @param originY float, y-coordinate of the local origin of the sprite in pixels
+     */
+    private void setBodyCenterOfMassAngle(float centerX,float centerY,float angle,float originX,float originY){
+        if (followerIndex>=0){
+            physics.bodyTransforms.set(followerIndex,centerX,centerY,angle);
+        }
+        Physics.setCenterOfMassAngle(body,centerX,centerY,angle,originX,originY);
     }
 
     /**
@@ -78,13 +166,21 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
     /**
      * Reads and stores position and angle of the body. Position is converted into pixel units.
      * Used for making the body move the sprite.
+     * A resting body has to interpolate once more after its data stops changing to get the final position.
+     *
+     * @return boolean, true if the sprite has to interpolate
      */
     @Override
-    public void readPositionAngleOfBody(){
+    public boolean readPositionAngleOfBody(){
         anglePreviousPhysicsTime = angleCurrentPhysicsTime;
         angleCurrentPhysicsTime =body.getAngle();
         centerMassPreviousPhysicsTime.set(centerMassCurrentPhysicsTime);
         centerMassCurrentPhysicsTime.set(Physics.getCenterOfMass(body,getOriginX(),getOriginY()));
+        boolean moves=(anglePreviousPhysicsTime!=angleCurrentPhysicsTime)
+                ||!centerMassPreviousPhysicsTime.equals(centerMassCurrentPhysicsTime);
+        boolean hasToInterpolate=moves||hasMoved;
+        hasMoved=moves;
+        return hasToInterpolate;
     }
 
     /**
@@ -94,12 +190,107 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * progress=1 for graphics time equal to time of new physics data
      * progress=0 for graphics time equal to time of previous physics data
      *
+     * If physics uses body transforms then a registered sprite takes its data from there.
+     *
      * @param progress float, progress between previous to new data, from 0 to 1
      */
+    @Override
     public void interpolatePositionAngleOfBody(float progress){
-        super.setWorldOriginX(MathUtils.lerp(centerMassPreviousPhysicsTime.x, centerMassCurrentPhysicsTime.x,progress));
-        super.setWorldOriginY(MathUtils.lerp(centerMassPreviousPhysicsTime.y, centerMassCurrentPhysicsTime.y,progress));
-        super.setAngle(MathUtils.lerpAngle(anglePreviousPhysicsTime, angleCurrentPhysicsTime,progress));
+        if (physics.useBodyTransforms&&(followerIndex>=0)){
+            physics.bodyTransforms.interpolate(followerIndex,progress,this);
+        }
+        else {
+            setInterpolatedPositionAngle(MathUtils.lerp(centerMassPreviousPhysicsTime.x, centerMassCurrentPhysicsTime.x, progress),
+                    MathUtils.lerp(centerMassPreviousPhysicsTime.y, centerMassCurrentPhysicsTime.y, progress),
+                    MathUtils.lerpAngle(anglePreviousPhysicsTime, angleCurrentPhysicsTime, progress));
+        }
+    }
+
+    /**
+     * Set the origin (center of mass) and angle of the sprite only. Does not change the body.
+     *
+     * @param centerX float, x-coordinate of the center of mass in pixels
+     * @param centerY float, y-coordinate of the center of mass in pixels
+     * @param angle float, angle in radians
+     */
+    @Override
+    public void setInterpolatedPositionAngle(float centerX, float centerY, float angle){
+        super.setWorldOriginX(centerX);
+        super.setWorldOriginY(centerY);
+        if (angle*MathUtils.radiansToDegrees!=super.getRotation()) {   // avoid recalculating the vertices
+            super.setAngle(angle);
+        }
+    }
+
+    // reading the graphics data of the body transforms of physics when needed
+
+    /**
+     * Set position and angle of the sprite from the interpolated data of the body transforms of physics.
+     * Only if physics uses body transforms, the sprite is registered and the data is new.
+     * Not if physics runs on its own thread, then physics sets the data in advance().
+     * Called before getting or setting position and angle of the sprite.
+     */
+    public void readGraphicsData(){
+        if ((followerIndex>=0)&&physics.useBodyTransforms&&(graphicsUpdate!=physics.bodyTransforms.graphicsUpdate)
+                &&!physics.isAsynchronous()){
+            graphicsUpdate=physics.bodyTransforms.graphicsUpdate;
+            physics.bodyTransforms.setGraphicsData(followerIndex,this);
+        }
+    }
+
+    /**
+     * Get the x-coordinate of the sprite position. Reads new graphics data if needed.
+     *
+     * @return float
+     */
+    @Override
+    public float getX(){
+        readGraphicsData();
+        return super.getX();
+    }
+
+    /**
+     * Get the y-coordinate of the sprite position. Reads new graphics data if needed.
+     *
+     * @return float
+     */
+    @Override
+    public float getY(){
+        readGraphicsData();
+        return super.getY();
+    }
+
+    /**
+     * Get the rotation of the sprite in degrees. Reads new graphics data if needed.
+     *
+     * @return float
+     */
+    @Override
+    public float getRotation(){
+        readGraphicsData();
+        return super.getRotation();
+    }
+
+    /**
+     * Get the vertices of the sprite for drawing. Reads new graphics data if needed.
+     *
+     * @return float[]
+     */
+    @Override
+    public float[] getVertices(){
+        readGraphicsData();
+        return super.getVertices();
+    }
+
+    /**
+     * Get the bounding rectangle of the sprite. Reads new graphics data if needed.
+     *
+     * @return Rectangle
+     */
+    @Override
+    public Rectangle getBoundingRectangle(){
+        readGraphicsData();
+        return super.getBoundingRectangle();
     }
 
     /**
@@ -109,6 +300,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setAngle(float angle) {
+        readGraphicsData();
         super.setAngle(angle);
         setPositionAngleOfBody();
     }
@@ -120,6 +312,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setRotation(float degrees) {
+        readGraphicsData();
         super.setRotation(degrees);
         setPositionAngleOfBody();
     }
@@ -131,6 +324,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void quantizeAngle(int n) {
+        readGraphicsData();
         super.quantizeAngle(n);
         setPositionAngleOfBody();
     }
@@ -142,6 +336,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setX(float x){
+        readGraphicsData();
         super.setX(x);
         setPositionAngleOfBody();
     }
@@ -153,6 +348,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setY(float y){
+        readGraphicsData();
         super.setY(y);
         setPositionAngleOfBody();
     }
@@ -165,6 +361,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setPosition(float x,float y){
+        readGraphicsData();
         super.setPosition(x,y);
         setPositionAngleOfBody();
     }
@@ -176,6 +373,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setPosition(Vector2 position){
+        readGraphicsData();
         super.setPosition(position.x,position.y);
         setPositionAngleOfBody();
     }
@@ -188,6 +386,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * @param angle float
      */
     public void setPositionAngle(float x,float y,float angle){
+        readGraphicsData();
         super.setPositionAngle(x,y,angle);
         setPositionAngleOfBody();
     }
@@ -199,6 +398,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * @param angle float
      */
     public void setPositionAngle(Vector2 position,float angle){
+        readGraphicsData();
         super.setPositionAngle(position,angle);
         setPositionAngleOfBody();
     }
@@ -211,6 +411,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setWorldOriginX(float x) {
+        readGraphicsData();
         super.setWorldOriginX(x);
         setPositionAngleOfBody();
     }
@@ -223,6 +424,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setWorldOriginY(float y) {
+        readGraphicsData();
         super.setWorldOriginY(y);
         setPositionAngleOfBody();
     }
@@ -239,6 +441,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      */
     @Override
     public void setWorldOrigin(float worldOriginPositionX, float worldOriginPositionY) {
+        readGraphicsData();
         super.setWorldOrigin(worldOriginPositionX,worldOriginPositionY);
         setPositionAngleOfBody();
     }
@@ -252,6 +455,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * @param angle float, angle in radians
      */
     public void setWorldOriginAngle(float worldOriginPositionX, float worldOriginPositionY,float angle) {
+        readGraphicsData();
         super.setWorldOrigin(worldOriginPositionX,worldOriginPositionY);
         super.setAngle(angle);
         setPositionAngleOfBody();
@@ -265,6 +469,7 @@ public class PhysicalSprite extends ExtensibleSprite implements BodyFollower{
      * @param angle float, angle in radians
      */
     public void setWorldOriginAngle(Vector2 worldOrigin,float angle) {
+        readGraphicsData();
         super.setWorldOrigin(worldOrigin.x,worldOrigin.y);
         super.setAngle(angle);
         setPositionAngleOfBody();
@@ -1,6 +1,11 @@
 package com.mygdx.game.physics;
 
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
 import com.badlogic.gdx.utils.Array;
 import com.mygdx.game.Sprite.SpriteActions;
 import com.mygdx.game.Sprite.SpriteContains;
@@ -13,17 +18,28 @@ import com.mygdx.game.Sprite.SpriteContains;
 
 public class PhysicalSpriteActions extends SpriteActions {
 
+    static private final Vector2 vertex=new Vector2();
+    static private final Vector2 nextVertex=new Vector2();
+
     /**
      * An object that implements SpriteContains especially for physics:
      * Contains a position if one of its body fixtures contains it.
      * Check only fixtures that are not sensors.
      * Does not check the region of the sprite image because the full shapes define the physics.
      * Use only shapes/fixtures that do not go outside the sprite's image.
+     * If physics runs on its own thread, then the position is transformed into the frame of the body
+     * using the graphics data of the body transforms, and tested against the shapes of the fixtures.
      */
     static public SpriteContains bodyContains = new SpriteContains() {
         @Override
         public boolean contains(com.mygdx.game.Sprite.ExtensibleSprite sprite,  float positionX, float positionY) {
             PhysicalSprite physicalSprite= (PhysicalSprite) sprite;
+            Physics physics=physicalSprite.physics;
+            if (physics.isAsynchronous()){
+                synchronized (physics.transformsLock){
+                    return transformedBodyContains(physicalSprite,positionX,positionY);
+                }
+            }
             positionX/=Physics.PIXELS_PER_METER;
             positionY/=Physics.PIXELS_PER_METER;
             Array<Fixture> fixtures = physicalSprite.body.getFixtureList();
@@ -37,6 +53,79 @@ public class PhysicalSpriteActions extends SpriteActions {
         }
     };
 
+    /**
+     * Check if the body of a sprite contains a position, without reading the transform of the body.
+     * Uses the center of mass and angle of the graphics data in the body transforms of physics,
+     * or of the sprite if its body is static. Call with the lock of the transforms.
+     *
+     * @param sprite PhysicalSprite
+     * @param positionX float, x-coordinate of the position in pixels
+     * @param positionY float, y-coordinate of the position in pixels
+     * @return boolean, true if a fixture that is not a sensor contains the position
+     */
+    static private boolean transformedBodyContains(PhysicalSprite sprite, float positionX, float positionY){
+        if (sprite.body==null){
+            return false;
+        }
+        BodyTransforms bodyTransforms=sprite.physics.bodyTransforms;
+        int index=sprite.getFollowerIndex();
+        float centerX, centerY, angle;
+        if (index>=0){
+            centerX=bodyTransforms.graphicsX[index];
+            centerY=bodyTransforms.graphicsY[index];
+            angle=bodyTransforms.graphicsAngle[index];
+        }
+        else {
+            centerX=sprite.getWorldOriginX();
+            centerY=sprite.getWorldOriginY();
+            angle=sprite.getAngle();
+        }
+        float sinAngle=MathUtils.sin(angle);
+        float cosAngle=MathUtils.cos(angle);
+        float dx=positionX-centerX;
+        float dy=positionY-centerY;
+        // the origin of the body frame is the lower left corner of the sprite, the center of mass is its origin
+        float localX=(cosAngle*dx+sinAngle*dy+sprite.getOriginX())/Physics.PIXELS_PER_METER;
+        float localY=(-sinAngle*dx+cosAngle*dy+sprite.getOriginY())/Physics.PIXELS_PER_METER;
+        Array<Fixture> fixtures = sprite.body.getFixtureList();
+        for (Fixture fixture : fixtures) {
+            if (!fixture.isSensor()&&shapeContains(fixture.getShape(),localX,localY)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check if a shape contains a point in the frame of its body, as Fixture.testPoint.
+     * Only circles and polygons (convex, counterclockwise) contain points.
+     *
+     * @param shape Shape, of a fixture
+     * @param x float, x-coordinate of the point in meters
+     * @param y float, y-coordinate of the point in meters
+     * @return boolean
+     */
+    static private boolean shapeContains(Shape shape,float x,float y){
+        if (shape instanceof CircleShape){
+            Vector2 center=((CircleShape) shape).getPosition();
+            float radius=shape.getRadius();
+            return Vector2.dst2(x,y,center.x,center.y)<=radius*radius;
+        }
+        else if (shape instanceof PolygonShape){
+            PolygonShape polygon=(PolygonShape) shape;
+            int count=polygon.getVertexCount();
+            for (int i=0;i<count;i++){
+                polygon.getVertex(i,vertex);
+                polygon.getVertex((i+1)%count,nextVertex);
+                if ((nextVertex.x-vertex.x)*(y-vertex.y)-(nextVertex.y-vertex.y)*(x-vertex.x)<0){
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
     /**
      * A PhysicalSpriteUpdate object that does nothing
      */
@@ -74,10 +74,23 @@ public class PhysicalSpriteBuilder extends ExtensibleSpriteBuilder {
      * @param useStaticBodies boolean, true for making non-moving bodies static
      */
     public void setMouseJointMover(boolean useStaticBodies){
+        setMouseJointMover(useStaticBodies,false);
+    }
+
+    /**
+     * Use the mouseJoint to move the sprite. Use the bodies shapes for contains method.
+     * Sets the basic methods for physical sprite.
+     * Reused joints stay with their sprites in the mouseJointPool of physics and pull at the center of mass.
+     *
+     * @param useStaticBodies boolean, true for making non-moving bodies static
+     * @param reuseJoints boolean, true for keeping the joints for the next touch
+     */
+    public void setMouseJointMover(boolean useStaticBodies,boolean reuseJoints){
         if (mouseJointMover==null){
             mouseJointMover=new MouseJointMover();
         }
         mouseJointMover.useStaticBodies=useStaticBodies;
+        mouseJointMover.reuseJoints=reuseJoints;
         if (useStaticBodies){
             setBodyType(BodyDef.BodyType.StaticBody);
         }
@@ -118,6 +131,7 @@ public class PhysicalSpriteBuilder extends ExtensibleSpriteBuilder {
      * Set local origin of the sprite from center of mass of the body.
      * Position and angle of sprite results from body (BodyBuilder).
      * If body has mouseJointMover then make it static.
+     * Registers the sprite as body follower if the body is not static.
      *
      * Note: We can't set the position of the origin without knowing the center of
      * mass of the body. Thus we have to create the body before setting its position.
@@ -139,7 +153,7 @@ public class PhysicalSpriteBuilder extends ExtensibleSpriteBuilder {
         sprite.setLocalOriginFromBody();
         sprite.readPositionAngleOfBody();
         sprite.interpolatePositionAngleOfBody(1);
-        body.setType(masterBodyType);
+        physics.setBodyType(body,masterBodyType);
         return sprite;
     }
 
@@ -161,4 +175,16 @@ public class PhysicalSpriteBuilder extends ExtensibleSpriteBuilder {
         Body body=physics.bodyBuilder.buildDynamicalBody(null);
         return build(textureRegion,shape,body);
     }
-}
\ No newline at end of file
+
+    /**
+     * Create a prefab for many identical physical sprites with the current settings of this builder
+     * and of the body and fixture builders of physics. Build the sprites with its build methods.
+     *
+     * @param textureRegion TextureRegion, the sprites image
+     * @param shape Shape2D shape for the sprites and the bodies.
+     * @return PhysicalSpritePrefab
+     */
+    public PhysicalSpritePrefab buildPrefab(TextureRegion textureRegion, Shape2D shape){
+        return new PhysicalSpritePrefab(this,textureRegion,shape);
+    }
+}
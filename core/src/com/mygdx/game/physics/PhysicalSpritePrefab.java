@@ -0,0 +1,245 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.mygdx.game.Images.Shape2DCollection;
+import com.mygdx.game.Sprite.ExtensibleSpriteBuilder;
+import com.mygdx.game.utilities.Device;
+
+/**
+ * A template for many identical physical sprites. Created by PhysicalSpriteBuilder.buildPrefab.
+ * Captures the settings of the builders: body definition, fixture data, body type and sprite actions.
+ * Converts the shapes and determines the center of mass only once.
+ * Instances get their body with the final type and position. No toggling of body type, no reading back.
+ * Disposes its box2D shapes with the device.
+ * If physics runs on its own thread, then the bodies of sprites built on the render thread
+ * are created by bodyCommands after the next world step.
+ */
+
+public class PhysicalSpritePrefab implements Disposable {
+    Physics physics;
+    Device device;
+    public TextureRegion textureRegion;
+    public Shape2D shape;
+    BodyDef bodyDef;
+    FixtureDef fixtureDef;
+    Array<Shape> shapes;                            // box2D shapes for the fixtures
+    public float localCenterX, localCenterY;        // center of mass relative to the left bottom corner, pixels
+    ExtensibleSpriteBuilder spriteBuilder;          // with the sprite actions of the physical sprite builder
+    PhysicalSpriteUpdate spriteUpdate;
+
+    /**
+     * Create a prefab with the current settings of the physical sprite builder, body builder and fixture builder.
+     * Determines the center of mass with a temporary body. Thus, if physics runs on its own thread,
+     * create it on the physics thread with a PhysicsCommand or before starting the thread.
+     *
+     * @param builder PhysicalSpriteBuilder
+     * @param textureRegion TextureRegion, the image of the sprites
+     * @param shape Shape2D, shape for the sprites and the fixtures of their bodies
+     * @throws IllegalStateException if another thread steps the world or during a world step
+     */
+    public PhysicalSpritePrefab(PhysicalSpriteBuilder builder, TextureRegion textureRegion, Shape2D shape) {
+        physics = builder.physics;
+        if (!physics.canCreateBodies()) {
+            throw new IllegalStateException("PhysicalSpritePrefab: create it on the thread of physics outside a world step");
+        }
+        device = builder.device;
+        this.textureRegion = textureRegion;
+        this.shape = shape;
+        spriteBuilder = new ExtensibleSpriteBuilder(device);
+        spriteBuilder.setContains(builder.masterContains)
+                .setDraw(builder.masterDraw)
+                .setKeepVisible(builder.masterKeepVisible)
+                .setTouchBegin(builder.masterTouchBegin)
+                .setTouchDrag(builder.masterTouchDrag)
+                .setTouchEnd(builder.masterTouchEnd)
+                .setScroll(builder.masterScroll);
+        spriteUpdate = builder.spritePrepareTimeStep;
+        bodyDef = copy(physics.bodyBuilder.bodyDef);
+        bodyDef.type = builder.masterBodyType;
+        fixtureDef = copy(physics.fixtureBuilder.fixtureDef);
+        fixtureDef.isSensor = false;
+        shapes = new Array<Shape>();
+        addShapes(shape);
+        BodyDef probeDef = copy(bodyDef);
+        probeDef.type = BodyDef.BodyType.DynamicBody;
+        probeDef.position.setZero();
+        probeDef.angle = 0;
+        Body probe = physics.world.createBody(probeDef);
+        addFixtures(probe);
+        localCenterX = probe.getLocalCenter().x * Physics.PIXELS_PER_METER;
+        localCenterY = probe.getLocalCenter().y * Physics.PIXELS_PER_METER;
+        physics.world.destroyBody(probe);
+        device.disposer.add(this, "PhysicalSpritePrefab");
+    }
+
+    /**
+     * Get a copy of a body definition.
+     *
+     * @param def BodyDef
+     * @return BodyDef, new
+     */
+    private static BodyDef copy(BodyDef def) {
+        BodyDef result = new BodyDef();
+        result.type = def.type;
+        result.position.set(def.position);
+        result.angle = def.angle;
+        result.linearVelocity.set(def.linearVelocity);
+        result.angularVelocity = def.angularVelocity;
+        result.linearDamping = def.linearDamping;
+        result.angularDamping = def.angularDamping;
+        result.allowSleep = def.allowSleep;
+        result.awake = def.awake;
+        result.fixedRotation = def.fixedRotation;
+        result.bullet = def.bullet;
+        result.active = def.active;
+        result.gravityScale = def.gravityScale;
+        return result;
+    }
+
+    /**
+     * Get a copy of a fixture definition, without shape.
+     *
+     * @param def FixtureDef
+     * @return FixtureDef, new
+     */
+    private static FixtureDef copy(FixtureDef def) {
+        FixtureDef result = new FixtureDef();
+        result.friction = def.friction;
+        result.restitution = def.restitution;
+        result.density = def.density;
+        result.isSensor = def.isSensor;
+        result.filter.categoryBits = def.filter.categoryBits;
+        result.filter.maskBits = def.filter.maskBits;
+        result.filter.groupIndex = def.filter.groupIndex;
+        return result;
+    }
+
+    /**
+     * Convert a Shape2D shape to box2D shapes, including the shapes of collections.
+     *
+     * @param shape2D Shape2D
+     */
+    private void addShapes(Shape2D shape2D) {
+        if (shape2D instanceof Shape2DCollection) {
+            for (Shape2D subShape2D : ((Shape2DCollection) shape2D).items) {
+                addShapes(subShape2D);
+            }
+        } else if (shape2D != null) {
+            shapes.add(Box2DShape.ofShape2D(shape2D));
+        }
+    }
+
+    /**
+     * Create the fixtures of a body.
+     *
+     * @param body Body
+     */
+    private void addFixtures(Body body) {
+        for (Shape box2DShape : shapes) {
+            fixtureDef.shape = box2DShape;
+            body.createFixture(fixtureDef);
+        }
+        fixtureDef.shape = null;
+    }
+
+    /**
+     * Build a physical sprite. Its center of mass and angle are given.
+     * Registers the sprite as body follower if the body is not static.
+     * If the world cannot be changed now, then bodyCommands creates the body after the next world step.
+     * Until then the body of the sprite is null.
+     *
+     * @param centerX float, x-coordinate of the center of mass in pixels
+     * @param centerY float, y-coordinate of the center of mass in pixels
+     * @param angle float, in radians
+     * @return PhysicalSprite
+     */
+    public PhysicalSprite build(final float centerX, final float centerY, final float angle) {
+        final PhysicalSprite sprite = physics.physicalSpritePool.obtain();
+        spriteBuilder.setup(sprite, textureRegion, shape);
+        sprite.setOrigin(localCenterX, localCenterY);
+        sprite.physics = physics;
+        sprite.spriteUpdate = spriteUpdate;
+        sprite.centerMassCurrentPhysicsTime.set(centerX, centerY);
+        sprite.centerMassPreviousPhysicsTime.set(centerX, centerY);
+        sprite.angleCurrentPhysicsTime = angle;
+        sprite.anglePreviousPhysicsTime = angle;
+        sprite.setInterpolatedPositionAngle(centerX, centerY, angle);
+        if (physics.canCreateBodies()) {
+            createBody(sprite, centerX, centerY, angle);
+        } else {
+            sprite.bodyCreation = new PhysicsCommand() {
+                @Override
+                public void apply(Physics physics) {
+                    if (sprite.bodyCreation == this) {      // the sprite might have been freed meanwhile
+                        sprite.bodyCreation = null;
+                        createBody(sprite, centerX, centerY, angle);
+                    }
+                }
+            };
+            physics.bodyCommands.create(sprite.bodyCreation);
+        }
+        return sprite;
+    }
+
+    /**
+     * Create the body of a sprite with its fixtures and register the sprite as its follower.
+     * On the thread of physics, outside a world step.
+     *
+     * @param sprite PhysicalSprite
+     * @param centerX float, x-coordinate of the center of mass in pixels
+     * @param centerY float, y-coordinate of the center of mass in pixels
+     * @param angle float, in radians
+     */
+    private void createBody(PhysicalSprite sprite, float centerX, float centerY, float angle) {
+        float sinAngle = MathUtils.sin(angle);
+        float cosAngle = MathUtils.cos(angle);
+        bodyDef.position.set((centerX - cosAngle * localCenterX + sinAngle * localCenterY) / Physics.PIXELS_PER_METER,
+                             (centerY - sinAngle * localCenterX - cosAngle * localCenterY) / Physics.PIXELS_PER_METER);
+        bodyDef.angle = angle;
+        Body body = physics.world.createBody(bodyDef);
+        physics.addBody(body);
+        addFixtures(body);
+        sprite.body = body;
+        body.setUserData(sprite);
+        physics.updateBodyFollower(body);
+    }
+
+    /**
+     * Build many physical sprites in one call.
+     *
+     * @param centersAndAngles float[], x- and y-coordinates of the center of mass and angle for each sprite
+     * @param count int, number of sprites
+     * @param sprites Array of PhysicalSprites, the new sprites are added, can be null
+     */
+    public void build(float[] centersAndAngles, int count, Array<PhysicalSprite> sprites) {
+        if (sprites != null) {
+            sprites.ensureCapacity(count);
+        }
+        PhysicalSprite sprite;
+        for (int i = 0; i < count; i++) {
+            sprite = build(centersAndAngles[3 * i], centersAndAngles[3 * i + 1], centersAndAngles[3 * i + 2]);
+            if (sprites != null) {
+                sprites.add(sprite);
+            }
+        }
+    }
+
+    /**
+     * Dispose the box2D shapes.
+     */
+    @Override
+    public void dispose() {
+        for (Shape box2DShape : shapes) {
+            box2DShape.dispose();
+        }
+        shapes.clear();
+    }
+}
@@ -2,6 +2,8 @@ package com.mygdx.game.physics;
 
 /**
  * Update data of physical sprite before a time step.
+ * If physics runs on its own thread, then updates run on the physics thread.
+ * They may change the body, other data shared with the render thread has to be changed with commands.
  */
 
 public interface PhysicalSpriteUpdate {
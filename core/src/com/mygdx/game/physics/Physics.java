@@ -10,8 +10,11 @@ import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Box2D;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
 import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.JointDef;
 import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectSet;
 import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.Pools;
 import com.badlogic.gdx.utils.viewport.Viewport;
@@ -29,6 +32,7 @@ public class Physics {
     OrthographicCamera debugCamera;
     public BodyBuilder bodyBuilder;
     public FixtureBuilder fixtureBuilder;
+    public ShapeCache shapeCache;
     public JointBuilder jointBuilder;
     Pool<PhysicalSprite> physicalSpritePool;
     public PhysicalSpriteBuilder physicalSpriteBuilder;
@@ -37,11 +41,31 @@ public class Physics {
     float graphicsTime;
     Array<Body> bodies;
     boolean bodiesNeedUpdate = true;
+    int worldChanges = 0;                           // counts creations and destructions of bodies and joints
+    Array<BodyFollower> bodyFollowers;              // followers of dynamic and kinematic bodies
+    Array<BodyFollower> movingBodyFollowers;        // followers that have to interpolate
+    Array<BodyFollower> staticBodyFollowers;        // followers of static bodies, they only prepare time steps
+    public boolean skipRestingBodies = false;       // true: interpolate only moving body followers
+    public BodyTransforms bodyTransforms;           // primitive data of the body followers, same indices
+    public boolean useBodyTransforms = false;       // true: bulk readback and interpolation in bodyTransforms
     static public float PIXELS_PER_METER = 30;       // default
-    static final float TIME_STEP = 1 / 60f;
-    final float MAX_TIME_INTERVAL = 0.25f;
-    final int VELOCITY_ITERATIONS = 8;
-    final int POSITION_ITERATIONS = 3;
+    static final float TIME_STEP = 1 / 60f;          // default
+    public StepScheduler stepScheduler;             // step rate, budget and iterations
+    PhysicsThread physicsThread;                    // not null if physics runs on its own thread
+    final Object transformsLock = new Object();     // guards bodyTransforms and commands while the thread runs
+    float transformsTime;                           // physics time of the current data of bodyTransforms
+    Array<PhysicsCommand> commands;                 // waiting for the physics thread
+    Array<PhysicsCommand> appliedCommands;
+    Array<PhysicsCommand> stepCommands;             // applied by the physics thread before each of its steps
+    Array<PhysicsCommand> appliedStepCommands;
+    final Object worldLock = new Object();          // held by the physics thread during its steps
+    public BodyCommands bodyCommands;               // changes of bodies and joints, applied after each step
+    public PhysicsSnapshotRing snapshotRing;        // if not null: takes snapshots after the steps
+    public PhysicsRecorder recorder;                // if not null: records or replays the frames of advance
+    public MouseJointPool mouseJointPool;           // parked mouse joints of touched sprites
+    public ActivityCuller activityCuller;           // if not null: deactivates bodies far outside the view
+    public ContactEvents contactEvents;             // if not null: collects the contact events of the steps
+    public PhysicsQueries queries;                  // batches of ray casts and region queries
 
     /**
      * Initialize box2D.
@@ -50,11 +74,25 @@ public class Physics {
      */
     public Physics(Device device) {
         this.device=device;
-        bodies = new Array<Body>();
+        bodies = new Array<Body>(true, 16, Body.class);
+        bodyFollowers = new Array<BodyFollower>(false, 16, BodyFollower.class);
+        movingBodyFollowers = new Array<BodyFollower>(false, 16, BodyFollower.class);
+        staticBodyFollowers = new Array<BodyFollower>(false, 16, BodyFollower.class);
+        bodyTransforms = new BodyTransforms();
+        stepScheduler = new StepScheduler();
+        commands = new Array<PhysicsCommand>(true, 16, PhysicsCommand.class);
+        appliedCommands = new Array<PhysicsCommand>(true, 16, PhysicsCommand.class);
+        stepCommands = new Array<PhysicsCommand>(true, 4, PhysicsCommand.class);
+        appliedStepCommands = new Array<PhysicsCommand>(true, 4, PhysicsCommand.class);
+        bodyCommands = new BodyCommands(this);
         Box2D.init();
         bodyBuilder=new BodyBuilder(this);
-        fixtureBuilder=new FixtureBuilder();
+        shapeCache=new ShapeCache();
+        device.disposer.add(shapeCache,"Physics.shapeCache");
+        fixtureBuilder=new FixtureBuilder(shapeCache);
         jointBuilder=new JointBuilder(this);
+        mouseJointPool=new MouseJointPool(this);
+        queries=new PhysicsQueries(this);
         physicalSpritePool= Pools.get(PhysicalSprite.class);
         physicalSpriteBuilder=new PhysicalSpriteBuilder(device,this);
     }
@@ -75,6 +113,9 @@ public class Physics {
             world = new World(new Vector2(gravityX, gravityY).scl(1f/PIXELS_PER_METER),
                                 doSleep);
             device.disposer.add(world,"Physics.world");
+            if (contactEvents != null) {
+                world.setContactListener(contactEvents);
+            }
         }
     }
 
@@ -100,6 +141,7 @@ public class Physics {
     /**
      * If debugRenderer exists then do a debug rendering of result of last physics step.
      * Note that because of interpolation, the graphics positions lag slightly behind the physics positions.
+     * If physics runs on its own thread then waits for the end of its current time step.
      *
      * @param graphicsViewport Viewport, of the graphics world,
      *                         its camera data is scaled for setting the camera of the debugRenderer
@@ -111,8 +153,84 @@ public class Physics {
             debugCamera.viewportWidth = graphicsCamera.viewportWidth / PIXELS_PER_METER;
             debugCamera.viewportHeight = graphicsCamera.viewportHeight / PIXELS_PER_METER;
             debugCamera.update();
-            debugRenderer.render(world, debugCamera.combined);
+            synchronized (worldLock) {
+                debugRenderer.render(world, debugCamera.combined);
+            }
+        }
+    }
+
+    /**
+     * Set a step scheduler. It determines the step rate, the budget of steps for each frame and the iterations.
+     *
+     * @param stepScheduler StepScheduler
+     */
+    public void setStepScheduler(StepScheduler stepScheduler) {
+        this.stepScheduler = stepScheduler;
+    }
+
+    /**
+     * Set a ring buffer for snapshots. It takes a snapshot after each interval of steps. Null for no snapshots.
+     *
+     * @param snapshotRing PhysicsSnapshotRing
+     */
+    public void setSnapshotRing(PhysicsSnapshotRing snapshotRing) {
+        this.snapshotRing = snapshotRing;
+    }
+
+    /**
+     * Set a recorder for the inputs of the frames. Null for no recording and replay.
+     * In replays, the time of the frames comes from the recording.
+     * Not while physics runs on its own thread, the frames of the thread cannot be recorded.
+     *
+     * @param recorder PhysicsRecorder
+     * @throws IllegalStateException if the physics thread runs
+     */
+    public void setRecorder(PhysicsRecorder recorder) {
+        if ((recorder != null) && (physicsThread != null)) {
+            throw new IllegalStateException("Physics: no recorder while physics runs on its own thread");
         }
+        this.recorder = recorder;
+    }
+
+    /**
+     * Set a ring buffer for the contact events of the world. It becomes the contact listener of the world,
+     * chain another listener with its listener field. Null for no contact listener.
+     *
+     * @param contactEvents ContactEvents
+     */
+    public void setContactEvents(ContactEvents contactEvents) {
+        this.contactEvents = contactEvents;
+        if (world != null) {
+            world.setContactListener(contactEvents);
+        }
+    }
+
+    /**
+     * Set a culler that deactivates bodies far outside the view of a camera. Null for simulating all bodies.
+     * Bodies that the old culler has deactivated become active again. With a physics thread the cullers change
+     * after the next time step, until then the old culler learns of destroyed bodies.
+     *
+     * @param activityCuller ActivityCuller
+     */
+    public void setActivityCuller(final ActivityCuller activityCuller) {
+        execute(new PhysicsCommand() {
+            @Override
+            public void apply(Physics physics) {
+                if (physics.activityCuller != null) {
+                    physics.activityCuller.activateAll();
+                }
+                physics.activityCuller = activityCuller;
+            }
+        });
+    }
+
+    /**
+     * Get the fixed time step of physics in seconds.
+     *
+     * @return float, time step of the step scheduler
+     */
+    public float getTimeStep() {
+        return stepScheduler.timeStep;
     }
 
     // forces and torques
@@ -124,7 +242,7 @@ public class Physics {
      * @return float, reaction torque of a joint in kg pixels²/sec²
      */
     public float getReactionTorque(Joint joint) {
-        return joint.getReactionTorque(1.0f / TIME_STEP) * PIXELS_PER_METER * PIXELS_PER_METER;
+        return joint.getReactionTorque(1.0f / stepScheduler.timeStep) * PIXELS_PER_METER * PIXELS_PER_METER;
     }
 
     /**
@@ -134,7 +252,7 @@ public class Physics {
      * @return reaction force as Vector2, will be overwritten at next call
      */
     public Vector2 getReactionForce(Joint joint) {
-        return joint.getReactionForce(1.0f / TIME_STEP).scl(PIXELS_PER_METER);
+        return joint.getReactionForce(1.0f / stepScheduler.timeStep).scl(PIXELS_PER_METER);
     }
 
     // instead of extending the body class: special methods
@@ -248,6 +366,105 @@ public class Physics {
         body.setLinearVelocity(v.x/PIXELS_PER_METER,v.y/PIXELS_PER_METER);
     }
 
+    // the registry of body followers. Followers of dynamic and kinematic bodies have indices >= 0.
+    // Followers of static bodies are registered separately with indices <= -2, to prepare time steps.
+
+    /**
+     * Add a body follower to the registry. Its body should be dynamic or kinematic.
+     * Reads its body to initialize its body transform data.
+     * Nothing happens if it is already registered.
+     *
+     * @param follower BodyFollower
+     */
+    public void addBodyFollower(BodyFollower follower) {
+        synchronized (transformsLock) {
+            if (follower.getFollowerIndex() < -1) {
+                removeBodyFollower(follower);
+            }
+            if (follower.getFollowerIndex() < 0) {
+                follower.setFollowerIndex(bodyFollowers.size);
+                bodyFollowers.add(follower);
+                bodyTransforms.add(follower);
+            }
+        }
+    }
+
+    /**
+     * Add a follower of a static body to the registry. It prepares time steps but does not read its body.
+     * Nothing happens if it is already registered as follower of a static body.
+     *
+     * @param follower BodyFollower
+     */
+    public void addStaticBodyFollower(BodyFollower follower) {
+        synchronized (transformsLock) {
+            if (follower.getFollowerIndex() >= 0) {
+                removeBodyFollower(follower);
+            }
+            if (follower.getFollowerIndex() == -1) {
+                follower.setFollowerIndex(-2 - staticBodyFollowers.size);
+                staticBodyFollowers.add(follower);
+            }
+        }
+    }
+
+    /**
+     * Remove a body follower from the registry. The last follower takes its place.
+     * Nothing happens if it is not registered.
+     *
+     * @param follower BodyFollower
+     */
+    public void removeBodyFollower(BodyFollower follower) {
+        synchronized (transformsLock) {
+            int index = follower.getFollowerIndex();
+            if (index >= 0) {
+                BodyFollower last = bodyFollowers.pop();
+                bodyTransforms.removeIndex(index);
+                if (last != follower) {
+                    bodyFollowers.set(index, last);
+                    last.setFollowerIndex(index);
+                }
+                follower.setFollowerIndex(-1);
+            } else if (index < -1) {
+                index = -2 - index;
+                BodyFollower last = staticBodyFollowers.pop();
+                if (last != follower) {
+                    staticBodyFollowers.set(index, last);
+                    last.setFollowerIndex(-2 - index);
+                }
+                follower.setFollowerIndex(-1);
+            }
+        }
+    }
+
+    /**
+     * Update the registry for a body. Call after changing its user data or its type.
+     * If the user data is a BodyFollower it will be registered with the followers of static bodies
+     * or of moving bodies, depending on the body type.
+     *
+     * @param body Body
+     */
+    public void updateBodyFollower(Body body) {
+        Object userData = body.getUserData();
+        if (userData instanceof BodyFollower) {
+            if (body.getType() == BodyDef.BodyType.StaticBody) {
+                addStaticBodyFollower((BodyFollower) userData);
+            } else {
+                addBodyFollower((BodyFollower) userData);
+            }
+        }
+    }
+
+    /**
+     * Set the type of a body and update the registry of body followers.
+     *
+     * @param body Body
+     * @param bodyType BodyDef.BodyType, static, dynamic or kinematic
+     */
+    public void setBodyType(Body body, BodyDef.BodyType bodyType) {
+        body.setType(bodyType);
+        updateBodyFollower(body);
+    }
+
     // doing the physics ....
 
     /**
@@ -258,7 +475,267 @@ public class Physics {
     }
 
     /**
-     * Update the bodies array if bodies have been created or destroyed.
+     * Start physics on its own thread. Reads body data in one pass into bodyTransforms.
+     * The render thread only interpolates this data in advance().
+     * While the thread runs, do not access the world from the render thread.
+     * Make changes with execute(PhysicsCommand) instead. Forces have to be applied before each step,
+     * use addStepCommand. Forces, Balance, debugRender() and PhysicalSpriteActions.bodyContains do this.
+     * The updates of physical sprites run on the physics thread.
+     * The thread is stopped upon disposal of the device or with stopThread().
+     * Not with a recorder, remove it before.
+     *
+     * @throws IllegalStateException if there is a recorder
+     */
+    public void startThread() {
+        if (recorder != null) {
+            throw new IllegalStateException("Physics: no physics thread with a recorder");
+        }
+        if (physicsThread == null) {
+            useBodyTransforms = true;
+            world.setAutoClearForces(false);
+            physicsTime = TimeU.getTime();
+            transformsTime = physicsTime;
+            physicsThread = new PhysicsThread(this);
+            device.disposer.add(physicsThread, "PhysicsThread");
+            physicsThread.start();
+        }
+    }
+
+    /**
+     * Stop the physics thread. Waits for the end of the current time step.
+     * Then physics advances on the render thread and waiting commands are applied.
+     */
+    public void stopThread() {
+        if (physicsThread != null) {
+            physicsThread.dispose();
+            physicsThread = null;
+            applyCommands();
+        }
+    }
+
+    /**
+     * Check if physics runs on its own thread.
+     *
+     * @return boolean, true if there is a physics thread
+     */
+    public boolean isAsynchronous() {
+        return physicsThread != null;
+    }
+
+    /**
+     * Change the physics world. If physics runs on its own thread, then the command is queued
+     * and the physics thread applies it after its next time step. Else it is applied at once.
+     *
+     * @param command PhysicsCommand
+     */
+    public void execute(PhysicsCommand command) {
+        if (physicsThread != null) {
+            synchronized (transformsLock) {
+                commands.add(command);
+            }
+        } else {
+            command.apply(this);
+        }
+    }
+
+    /**
+     * Add a command that the physics thread applies before each of its steps, such as applying forces.
+     * Forces are cleared after each step of the physics thread. Nothing happens if the command is already there.
+     * Without physics thread, step commands are not applied.
+     *
+     * @param command PhysicsCommand
+     */
+    public void addStepCommand(PhysicsCommand command) {
+        synchronized (transformsLock) {
+            if (!stepCommands.contains(command, true)) {
+                stepCommands.add(command);
+            }
+        }
+    }
+
+    /**
+     * Remove a command applied before each step of the physics thread.
+     *
+     * @param command PhysicsCommand
+     */
+    public void removeStepCommand(PhysicsCommand command) {
+        synchronized (transformsLock) {
+            stepCommands.removeValue(command, true);
+        }
+    }
+
+    /**
+     * Apply the step commands. On the physics thread before a step.
+     * They are copied under lock and applied without, the render thread does not wait for them.
+     */
+    void applyStepCommands() {
+        synchronized (transformsLock) {
+            appliedStepCommands.clear();
+            appliedStepCommands.addAll(stepCommands);
+        }
+        PhysicsCommand[] items = appliedStepCommands.items;
+        for (int i = 0; i < appliedStepCommands.size; i++) {
+            items[i].apply(this);
+        }
+    }
+
+    /**
+     * Apply the waiting commands of the physics thread. Commands queued meanwhile wait for the next call.
+     * Then apply the changes of bodyCommands in one pass.
+     */
+    void applyCommands() {
+        synchronized (transformsLock) {
+            Array<PhysicsCommand> waitingCommands = commands;
+            commands = appliedCommands;
+            appliedCommands = waitingCommands;
+            PhysicsCommand[] items = waitingCommands.items;
+            int length = waitingCommands.size;
+            for (int i = 0; i < length; i++) {
+                items[i].apply(this);
+            }
+            waitingCommands.clear();
+            bodyCommands.apply();
+        }
+    }
+
+    /**
+     * Add a new body to the bodies array, if it is up to date. Counts the change of the world.
+     *
+     * @param body Body
+     */
+    void addBody(Body body) {
+        worldChanges++;
+        if (!bodiesNeedUpdate) {
+            bodies.add(body);
+        }
+    }
+
+    /**
+     * Remove bodies that will be destroyed from the bodies array, if it is up to date. One pass.
+     * Counts the change of the world. The activity culler forgets the bodies.
+     *
+     * @param destroyedBodies ObjectSet of bodies
+     */
+    void removeBodies(ObjectSet<Body> destroyedBodies) {
+        worldChanges++;
+        if (activityCuller != null) {
+            activityCuller.forgetBodies(destroyedBodies);
+        }
+        if (!bodiesNeedUpdate) {
+            Body[] items = bodies.items;
+            int length = bodies.size;
+            int j = 0;
+            for (int i = 0; i < length; i++) {
+                if (!destroyedBodies.contains(items[i])) {
+                    items[j++] = items[i];
+                }
+            }
+            bodies.truncate(j);
+        }
+    }
+
+    /**
+     * Check if bodies may be created now: Outside a world step and on the thread that steps the world.
+     *
+     * @return boolean, true if bodies and joints can be created at once
+     */
+    boolean canCreateBodies() {
+        return ((physicsThread == null) || (Thread.currentThread() == physicsThread)) && !world.isLocked();
+    }
+
+    /**
+     * Check if the world may be changed now: Outside a world step and on the thread that steps the world.
+     * Waiting changes of bodyCommands have to be done first.
+     *
+     * @return boolean, true if bodies and joints can be created and destroyed at once
+     */
+    boolean canChangeWorld() {
+        return canCreateBodies() && bodyCommands.isEmpty();
+    }
+
+    /**
+     * Destroy a body. Its follower leaves the registry.
+     * At once if the world can be changed now. Else bodyCommands destroys it after the next world step,
+     * and it is deactivated as soon as possible.
+     *
+     * @param body Body
+     */
+    public void destroyBody(Body body) {
+        if (canChangeWorld()) {
+            Object userData = body.getUserData();
+            if (userData instanceof BodyFollower) {
+                removeBodyFollower((BodyFollower) userData);
+            }
+            if (!bodiesNeedUpdate) {
+                bodies.removeValue(body, true);
+            }
+            if (activityCuller != null) {
+                activityCuller.forgetBody(body);
+            }
+            worldChanges++;
+            world.destroyBody(body);
+        } else {
+            bodyCommands.destroyBody(body);
+        }
+    }
+
+    /**
+     * Create a joint and count the change of the world. Used by the joint builder.
+     *
+     * @param jointDef JointDef
+     * @return Joint
+     */
+    Joint createJoint(JointDef jointDef) {
+        worldChanges++;
+        return world.createJoint(jointDef);
+    }
+
+    /**
+     * Destroy a joint. At once if the world can be changed now, else bodyCommands destroys it
+     * after the next world step.
+     *
+     * @param joint Joint
+     */
+    public void destroyJoint(Joint joint) {
+        if (canChangeWorld()) {
+            worldChanges++;
+            world.destroyJoint(joint);
+        } else {
+            bodyCommands.destroyJoint(joint);
+        }
+    }
+
+    /**
+     * Deactivate a body that will be destroyed later, if possible outside a world step.
+     * Waits for the end of the current step of the physics thread. Contacts of the body end now.
+     *
+     * @param body Body
+     */
+    void deactivateBody(Body body) {
+        synchronized (worldLock) {
+            if (!world.isLocked()) {
+                body.setActive(false);
+            }
+        }
+    }
+
+    /**
+     * Disable a mouse joint that will be destroyed later, if possible outside a world step.
+     *
+     * @param joint MouseJoint
+     */
+    void disableMouseJoint(MouseJoint joint) {
+        synchronized (worldLock) {
+            if (!world.isLocked()) {
+                joint.setMaxForce(0);
+            }
+        }
+    }
+
+    /**
+     * Get the bodies array from the world at first use.
+     * Later, building and destroying bodies patch it.
+     * The time step uses the registry of body followers instead.
      */
     public void updateBodies() {
         if (bodiesNeedUpdate) {
@@ -268,81 +745,198 @@ public class Physics {
     }
 
     /**
-     * Call body followers to prepare a time step.
-     * Make one time step. Increase physics time by the fixed time step.
+     * Call registered body followers to prepare a time step.
+     * Make one time step with the iterations of the step scheduler. Increase physics time by the fixed time step.
+     * Then apply waiting commands and the changes of bodyCommands. Check the activity of bodies if there is a culler.
+     * Take a snapshot if there is a snapshot ring.
      * Override this to remove or create bodies after a world step.
      */
     public void step() {
-        Object userData;
-        updateBodies();
-        for (Body body : bodies) {
-            userData = body.getUserData();
-            if (userData instanceof BodyFollower) {
-                ((BodyFollower) userData).prepareTimeStep();
+        prepareStep();
+        stepWorld();
+        finishStep();
+    }
+
+    /**
+     * First phase of a step: Call registered body followers to prepare the time step,
+     * including the followers of static bodies.
+     */
+    void prepareStep() {
+        synchronized (transformsLock) {
+            BodyFollower[] followers = bodyFollowers.items;
+            for (int i = bodyFollowers.size - 1; i >= 0; i--) {
+                followers[i].prepareTimeStep();
+            }
+            followers = staticBodyFollowers.items;
+            for (int i = staticBodyFollowers.size - 1; i >= 0; i--) {
+                followers[i].prepareTimeStep();
             }
         }
-        world.step(TIME_STEP, VELOCITY_ITERATIONS, POSITION_ITERATIONS);
-        physicsTime += TIME_STEP;
     }
 
     /**
-     * Set the positions and angles of all PhysicalSprite userData objects that have dynamic bodies.
-     * Updates the Array of bodies if some bodies may have been destroyed or created in the world step.
+     * Second phase of a step: The box2D world step with the iterations of the step scheduler.
+     */
+    void stepWorld() {
+        world.step(stepScheduler.timeStep, stepScheduler.velocityIterations, stepScheduler.positionIterations);
+    }
+
+    /**
+     * Last phase of a step: Apply waiting commands and changes of bodies, take a snapshot if needed,
+     * count the step and increase physics time.
+     */
+    void finishStep() {
+        applyCommands();
+        if (activityCuller != null) {
+            activityCuller.afterStep();
+        }
+        if (snapshotRing != null) {
+            snapshotRing.afterStep();
+        }
+        stepScheduler.countStep();
+        physicsTime += stepScheduler.timeStep;
+    }
+
+    /**
+     * One time step on the physics thread. First the step commands apply forces.
+     * The world step runs without lock of the transforms, only debug rendering waits.
+     * Then the new data of the bodies is read into bodyTransforms, while the render thread waits.
+     */
+    void stepAsynchronous() {
+        synchronized (worldLock) {
+            applyStepCommands();
+            step();
+            world.clearForces();
+        }
+        synchronized (transformsLock) {
+            setPhysicsData();
+            transformsTime = physicsTime;
+        }
+    }
+
+    /**
+     * Set the positions and angles of all registered body followers. They have dynamic or kinematic bodies.
+     * If useBodyTransforms is true, then reads all bodies in one pass into the float arrays of bodyTransforms.
+     * Collects the followers that have to interpolate because their data has changed.
      */
     public void setPhysicsData() {
-        Object userData;
-        updateBodies();
-        for (Body body : bodies) {
-            userData = body.getUserData();
-            if ((body.getType()!= BodyDef.BodyType.StaticBody)&&(userData instanceof BodyFollower)) {
-                ((BodyFollower) userData).readPositionAngleOfBody();
+        BodyFollower[] followers = bodyFollowers.items;
+        BodyFollower follower;
+        movingBodyFollowers.clear();
+        if (useBodyTransforms) {
+            bodyTransforms.swap();
+            for (int i = bodyFollowers.size - 1; i >= 0; i--) {
+                follower = followers[i];
+                if (bodyTransforms.read(i, follower)) {
+                    movingBodyFollowers.add(follower);
+                }
+            }
+        } else {
+            for (int i = bodyFollowers.size - 1; i >= 0; i--) {
+                follower = followers[i];
+                if (follower.readPositionAngleOfBody()) {
+                    movingBodyFollowers.add(follower);
+                }
             }
         }
     }
 
     /**
-     * Let the PhysicalSprite userData objects interpolate positions and angles to give the data at graphics time.
+     * Let the registered body followers interpolate positions and angles to give the data at graphics time.
      * progress=1 gets the new physics data, progress=0 gets the previous physics data.
-     * For static body use last position as dynamic body and fix progress=1.
+     * Followers of static bodies are not registered and do not move.
+     * If useBodyTransforms is true, then interpolates the data of all followers in one loop over the float arrays
+     * of bodyTransforms. The followers read their new data later when they need it.
+     * Else, if skipRestingBodies is true then only followers with changing data interpolate.
      *
      * @param progress float, interpolation parameter
      */
     public void updateGraphicsData(float progress) {
-        Object userData;
-        updateBodies();
-        for (Body body : bodies) {
-            userData = body.getUserData();
-            if ((body.getType()!= BodyDef.BodyType.StaticBody)&&(userData instanceof BodyFollower)) {
-                    ((BodyFollower) userData).interpolatePositionAngleOfBody(progress);
+        if (useBodyTransforms) {
+            bodyTransforms.interpolate(progress);
+        } else if (skipRestingBodies) {
+            BodyFollower[] followers = movingBodyFollowers.items;
+            BodyFollower follower;
+            for (int i = movingBodyFollowers.size - 1; i >= 0; i--) {
+                follower = followers[i];
+                if (follower.getFollowerIndex() >= 0) {          // might have been removed since reading
+                    follower.interpolatePositionAngleOfBody(progress);
+                }
+            }
+        } else {
+            BodyFollower[] followers = bodyFollowers.items;
+            for (int i = bodyFollowers.size - 1; i >= 0; i--) {
+                followers[i].interpolatePositionAngleOfBody(progress);
             }
         }
     }
 
     /**
-     * Advance physics with fixed time steps.
-     * The graphics time is the real world time at the call of this method.
+     * Advance physics with fixed time steps of the step scheduler.
+     * The graphics time is the real world time at the call of this method, or comes from the recorder in replays.
      * Thus advance the physics time past the graphics time.
+     * If the budget of the step scheduler is used up, then the remaining catch up steps are dropped.
      * Uses interpolation for the positions and angles of sprites at graphics time.
      * Clears forces explicitly.
+     * If physics runs on its own thread then only interpolates its latest data.
      */
     public void advance() {
+        if (activityCuller != null) {
+            activityCuller.readCamera();
+        }
+        if (physicsThread != null) {
+            advanceAsynchronous();
+            return;
+        }
         world.setAutoClearForces(false);
-        graphicsTime = TimeU.getTime();
+        graphicsTime = (recorder != null) ? recorder.beginAdvance() : TimeU.getTime();
+        float timeStep = stepScheduler.timeStep;
         if (physicsTime < graphicsTime) {   // we have to advance time with fixed time step
-            physicsTime = Math.max(physicsTime, graphicsTime - MAX_TIME_INTERVAL);  //prevent spiral of death
-            if (physicsTime < graphicsTime - TIME_STEP) {   // we need more than one time step
-                while (physicsTime < graphicsTime - TIME_STEP) {  // advance until we are close
-                    step();
+            stepScheduler.beginFrame();
+            float earliestTime = graphicsTime - stepScheduler.maxTimeInterval;
+            if (physicsTime < earliestTime) {    //prevent spiral of death
+                stepScheduler.dropSteps((int) ((earliestTime - physicsTime) / timeStep));
+                physicsTime = earliestTime;
+            }
+            if (physicsTime < graphicsTime - timeStep) {   // we need more than one time step
+                while (physicsTime < graphicsTime - timeStep) {  // advance until we are close
+                    if (stepScheduler.hasBudget()) {
+                        step();
+                    } else {
+                        int droppedSteps = Math.max(1, MathUtils.ceil((graphicsTime - timeStep - physicsTime) / timeStep));
+                        stepScheduler.dropSteps(droppedSteps);
+                        physicsTime += droppedSteps * timeStep;
+                    }
                 }
                 setPhysicsData();
             }
-            // physics time is less than TIME_STEP behind graphics time,
+            // physics time is less than time step behind graphics time,
             // new physics result of sprites is set to this time
             step();
             setPhysicsData();
+            stepScheduler.endFrame();
         }
         world.clearForces();
-        float progress = 1 - (physicsTime - graphicsTime) / TIME_STEP;  // 1 if physicsTime=graphicsTime, decreasing to zero
+        float progress = 1 - (physicsTime - graphicsTime) / timeStep;  // 1 if physicsTime=graphicsTime, decreasing to zero
         updateGraphicsData(progress);
+        if (recorder != null) {
+            recorder.endAdvance();
+        }
+    }
+
+    /**
+     * Interpolate the data of the physics thread at graphics time.
+     * Between the two latest readings of the bodies. Sets the data of all registered followers.
+     */
+    void advanceAsynchronous() {
+        graphicsTime = TimeU.getTime();
+        synchronized (transformsLock) {
+            float progress = 1 - (transformsTime - graphicsTime) / stepScheduler.timeStep;
+            progress = MathUtils.clamp(progress, 0, 1);
+            BodyFollower[] followers = bodyFollowers.items;
+            for (int i = bodyFollowers.size - 1; i >= 0; i--) {
+                bodyTransforms.interpolate(i, progress, followers[i]);
+            }
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.mygdx.game.physics;
+
+/**
+ * A change of the physics world, done between time steps.
+ * If physics runs on its own thread then commands are queued and the physics thread applies them.
+ */
+
+public interface PhysicsCommand {
+
+    /**
+     * Do the change.
+     *
+     * @param physics Physics
+     */
+    void apply(Physics physics);
+}
@@ -0,0 +1,287 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Batches of ray casts and queries of regions in the world of physics, in pixels.
+ * Add rays or regions, then cast or query them all at once. Results go into reused arrays:
+ * for each ray or region the index of its first result and the number of its results.
+ * Rays give the fixture, fraction, point and normal of their hits, sorted by fraction.
+ * With firstHit only the closest hit of each ray is kept. Regions give the fixtures overlapping them,
+ * points give the fixtures containing them.
+ * Only fixtures with category bits in common with maskBits are reported, sensors only if wanted.
+ * The callbacks and arrays are reused, nothing is created once the arrays are large enough.
+ * Use between steps. If physics runs on its own thread then use physics.execute.
+ */
+
+public class PhysicsQueries {
+    static final int HIT_DATA = 5;                  // fraction, point and normal
+    Physics physics;
+    public short maskBits = -1;
+    public boolean includeSensors = false;
+    public FloatArray rays = new FloatArray();       // start and end of each ray
+    public FloatArray regions = new FloatArray();    // left, bottom, right and top of each region
+    public IntArray resultStart = new IntArray();    // of each ray or region
+    public IntArray resultCount = new IntArray();
+    public Array<Fixture> fixtures = new Array<Fixture>(true, 16, Fixture.class);
+    public FloatArray hitData = new FloatArray();    // for each hit of a ray: fraction, x, y, normalX, normalY
+    private boolean firstHit;
+    private boolean testPoint;
+    private float pointX, pointY;                   // in meters
+    private int currentStart;
+    private final RayCastCallback rayCastCallback = new RayCastCallback() {
+        @Override
+        public float reportRayFixture(Fixture fixture, Vector2 point, Vector2 normal, float fraction) {
+            if (!accepts(fixture)) {
+                return -1;                          // ignore and continue
+            }
+            if (firstHit && (fixtures.size > currentStart)) {
+                fixtures.set(currentStart, fixture);
+                setHit(currentStart, fraction, point, normal);
+            } else {
+                fixtures.add(fixture);
+                hitData.setSize(HIT_DATA * fixtures.size);
+                setHit(fixtures.size - 1, fraction, point, normal);
+            }
+            return firstHit ? fraction : 1;
+        }
+    };
+    private final QueryCallback queryCallback = new QueryCallback() {
+        @Override
+        public boolean reportFixture(Fixture fixture) {
+            if (accepts(fixture) && (!testPoint || fixture.testPoint(pointX, pointY))) {
+                fixtures.add(fixture);
+            }
+            return true;
+        }
+    };
+
+    /**
+     * Create the query service for physics.
+     *
+     * @param physics Physics
+     */
+    public PhysicsQueries(Physics physics) {
+        this.physics = physics;
+    }
+
+    /**
+     * Set the filter for the reported fixtures.
+     *
+     * @param maskBits       short, fixtures need category bits in common with these, -1 for all
+     * @param includeSensors boolean, true to report sensor fixtures too
+     * @return this, for chaining
+     */
+    public PhysicsQueries setFilter(short maskBits, boolean includeSensors) {
+        this.maskBits = maskBits;
+        this.includeSensors = includeSensors;
+        return this;
+    }
+
+    /**
+     * Check if a fixture passes the filter.
+     *
+     * @param fixture Fixture
+     * @return boolean
+     */
+    private boolean accepts(Fixture fixture) {
+        return ((fixture.getFilterData().categoryBits & maskBits) != 0) && (includeSensors || !fixture.isSensor());
+    }
+
+    /**
+     * Write the data of a hit of a ray, in pixels.
+     *
+     * @param index    int, of the hit
+     * @param fraction float, of the ray length
+     * @param point    Vector2, in meters
+     * @param normal   Vector2
+     */
+    private void setHit(int index, float fraction, Vector2 point, Vector2 normal) {
+        float[] items = hitData.items;
+        int i = HIT_DATA * index;
+        items[i] = fraction;
+        items[i + 1] = point.x * Physics.PIXELS_PER_METER;
+        items[i + 2] = point.y * Physics.PIXELS_PER_METER;
+        items[i + 3] = normal.x;
+        items[i + 4] = normal.y;
+    }
+
+    /**
+     * Forget all rays and regions and their results.
+     *
+     * @return this, for chaining
+     */
+    public PhysicsQueries clear() {
+        rays.clear();
+        regions.clear();
+        clearResults();
+        return this;
+    }
+
+    /**
+     * Forget the results.
+     */
+    private void clearResults() {
+        resultStart.clear();
+        resultCount.clear();
+        fixtures.clear();
+        hitData.clear();
+    }
+
+    /**
+     * Add a ray from a start point to an end point.
+     *
+     * @param startX float, in pixels
+     * @param startY float
+     * @param endX   float
+     * @param endY   float
+     * @return int, index of the ray
+     */
+    public int addRay(float startX, float startY, float endX, float endY) {
+        float[] items = rays.ensureCapacity(4);
+        int size = rays.size;
+        items[size] = startX;
+        items[size + 1] = startY;
+        items[size + 2] = endX;
+        items[size + 3] = endY;
+        rays.size = size + 4;
+        return size / 4;
+    }
+
+    /**
+     * Add a rectangular region. A region of zero size is a point, giving only the fixtures that contain it.
+     *
+     * @param left   float, in pixels
+     * @param bottom float
+     * @param right  float
+     * @param top    float
+     * @return int, index of the region
+     */
+    public int addRegion(float left, float bottom, float right, float top) {
+        float[] items = regions.ensureCapacity(4);
+        int size = regions.size;
+        items[size] = left;
+        items[size + 1] = bottom;
+        items[size + 2] = right;
+        items[size + 3] = top;
+        regions.size = size + 4;
+        return size / 4;
+    }
+
+    /**
+     * Add a point, giving the fixtures that contain it.
+     *
+     * @param x float, in pixels
+     * @param y float
+     * @return int, index of the region
+     */
+    public int addPoint(float x, float y) {
+        return addRegion(x, y, x, y);
+    }
+
+    /**
+     * Cast all rays. The results of ray i are the fixtures and hitData from resultStart.get(i)
+     * to resultStart.get(i)+resultCount.get(i)-1, sorted by increasing fraction.
+     *
+     * @param firstHit boolean, true to keep only the closest hit of each ray
+     * @return int, total number of hits
+     */
+    public int castRays(boolean firstHit) {
+        clearResults();
+        this.firstHit = firstHit;
+        float scale = 1f / Physics.PIXELS_PER_METER;
+        float[] items = rays.items;
+        for (int i = 0; i < rays.size; i += 4) {
+            currentStart = fixtures.size;
+            float startX = items[i] * scale;
+            float startY = items[i + 1] * scale;
+            float endX = items[i + 2] * scale;
+            float endY = items[i + 3] * scale;
+            if ((startX != endX) || (startY != endY)) {     // box2D asserts on rays of zero length
+                physics.world.rayCast(rayCastCallback, startX, startY, endX, endY);
+            }
+            resultStart.add(currentStart);
+            resultCount.add(fixtures.size - currentStart);
+            sortHits(currentStart, fixtures.size);
+        }
+        return fixtures.size;
+    }
+
+    /**
+     * Sort hits of a ray by fraction, with insertion sort, as rays usually have few hits.
+     *
+     * @param start int, first hit
+     * @param end   int, after the last hit
+     */
+    private void sortHits(int start, int end) {
+        Fixture[] fixtureItems = fixtures.items;
+        float[] data = hitData.items;
+        for (int i = start + 1; i < end; i++) {
+            int j = i;
+            while ((j > start) && (data[HIT_DATA * (j - 1)] > data[HIT_DATA * j])) {
+                Fixture fixture = fixtureItems[j];
+                fixtureItems[j] = fixtureItems[j - 1];
+                fixtureItems[j - 1] = fixture;
+                for (int k = 0; k < HIT_DATA; k++) {
+                    float swap = data[HIT_DATA * j + k];
+                    data[HIT_DATA * j + k] = data[HIT_DATA * (j - 1) + k];
+                    data[HIT_DATA * (j - 1) + k] = swap;
+                }
+                j--;
+            }
+        }
+    }
+
+    /**
+     * Query all regions and points. The fixtures of region i are from resultStart.get(i)
+     * to resultStart.get(i)+resultCount.get(i)-1. Regions give fixtures whose bounding boxes overlap,
+     * points give fixtures that contain them.
+     *
+     * @return int, total number of fixtures found
+     */
+    public int queryRegions() {
+        clearResults();
+        float scale = 1f / Physics.PIXELS_PER_METER;
+        float[] items = regions.items;
+        for (int i = 0; i < regions.size; i += 4) {
+            int start = fixtures.size;
+            float left = items[i] * scale;
+            float bottom = items[i + 1] * scale;
+            float right = items[i + 2] * scale;
+            float top = items[i + 3] * scale;
+            testPoint = (left == right) && (bottom == top);
+            pointX = left;
+            pointY = bottom;
+            physics.world.QueryAABB(queryCallback, left, bottom, right, top);
+            resultStart.add(start);
+            resultCount.add(fixtures.size - start);
+        }
+        return fixtures.size;
+    }
+
+    /**
+     * Get the fixture of the closest hit of a ray, after castRays.
+     *
+     * @param ray int, index of the ray
+     * @return Fixture, null if the ray hits nothing
+     */
+    public Fixture getClosestFixture(int ray) {
+        return (resultCount.get(ray) > 0) ? fixtures.get(resultStart.get(ray)) : null;
+    }
+
+    /**
+     * Get the fraction of the closest hit of a ray, after castRays.
+     *
+     * @param ray int, index of the ray
+     * @return float, between 0 and 1, or 1 if the ray hits nothing
+     */
+    public float getClosestFraction(int ray) {
+        return (resultCount.get(ray) > 0) ? hitData.get(HIT_DATA * resultStart.get(ray)) : 1;
+    }
+}
@@ -0,0 +1,254 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.mygdx.game.Pieces.TouchMover;
+import com.mygdx.game.utilities.ReadData;
+import com.mygdx.game.utilities.TimeU;
+import com.mygdx.game.utilities.TouchReader;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Records the inputs of physics for each frame into a compact binary stream and replays them with a virtual clock.
+ * Each frame has: graphics time, touch state and position, gravity, iterations of the solver
+ * and the number of steps the step scheduler allowed. Forces of Forces objects depend only on the state
+ * of the bodies and are calculated again.
+ * Replays do the same steps as the recording if they start from the same world.
+ * Set it with Physics.setRecorder. Call update() at the beginning of each frame,
+ * before updating the touchMover and before physics.advance().
+ * Each frame is read in one piece at update() and written in one piece at the end of advance.
+ * Replays can run as fast as possible without rendering, see replayAll.
+ * Not for physics on its own thread: Physics refuses to set a recorder while its thread runs.
+ */
+
+public class PhysicsRecorder {
+    public static final int OFF = 0;
+    public static final int RECORD = 1;
+    public static final int REPLAY = 2;
+    static final int FRAME_BYTES = 4 + 1 + 2 * 4 + 2 * 4 + 2 + 2;   // after the header with physics time and time step
+    Physics physics;
+    TouchReader touchReader;
+    public int mode = OFF;
+    public ByteBuffer data;
+    public float graphicsTime;                         // of the current frame, real or virtual
+    public int frames = 0;                             // number of recorded or replayed frames
+    private StepScheduler replayScheduler;
+    private StepScheduler savedScheduler;
+    private Vector2 touchPosition = new Vector2();
+    private Vector2 gravity = new Vector2();
+    private boolean isTouching;
+    private int velocityIterations, positionIterations, steps;     // of the current frame
+    private boolean frameBegun = false;                // true if update() has been called for the current frame
+
+    /**
+     * Create a recorder for physics, using the touch reader of the device of physics.
+     *
+     * @param physics Physics
+     */
+    public PhysicsRecorder(Physics physics) {
+        this.physics = physics;
+        touchReader = physics.device.touchReader;
+        data = ByteBuffer.allocate(4096);
+    }
+
+    /**
+     * Make the buffer larger if needed. Keeps its data.
+     *
+     * @param bytes int, number of bytes to add
+     */
+    private void ensureRemaining(int bytes) {
+        if (data.remaining() < bytes) {
+            ByteBuffer newData = ByteBuffer.allocate(Math.max(data.position() + bytes, 2 * data.capacity()));
+            data.flip();
+            newData.put(data);
+            data = newData;
+        }
+    }
+
+    /**
+     * Start recording. Saves the physics time and the time step. Stops a replay.
+     */
+    public void startRecording() {
+        stop();
+        data.clear();
+        data.putFloat(physics.physicsTime);
+        data.putFloat(physics.stepScheduler.timeStep);
+        frames = 0;
+        frameBegun = false;
+        mode = RECORD;
+    }
+
+    /**
+     * Start replaying a recording. Sets the physics time and the time step of the recording.
+     * Uses its own step scheduler during the replay, which does what the recorded scheduler did.
+     * Restore the world to the state at the start of recording before, for example with a PhysicsSnapshot.
+     *
+     * @param recording ByteBuffer, with the recording from its beginning to its limit
+     */
+    public void startReplay(ByteBuffer recording) {
+        stop();
+        data = recording;
+        data.rewind();
+        physics.physicsTime = data.getFloat();
+        replayScheduler = new StepScheduler();
+        replayScheduler.timeStep = data.getFloat();
+        replayScheduler.maxNanosPerFrame = Long.MAX_VALUE;
+        replayScheduler.adaptiveIterations = false;
+        savedScheduler = physics.stepScheduler;
+        physics.setStepScheduler(replayScheduler);
+        frames = 0;
+        frameBegun = false;
+        mode = REPLAY;
+    }
+
+    /**
+     * Start replaying a recording from a file.
+     *
+     * @param fileHandle FileHandle, of the recording
+     */
+    public void startReplay(FileHandle fileHandle) {
+        ByteBuffer recording = ReadData.byteBuffer(fileHandle);
+        if (recording != null) {
+            startReplay(recording);
+        }
+    }
+
+    /**
+     * Stop recording or replaying. After a recording, the data is ready for saving.
+     * After a replay, the step scheduler and touch input are restored and physics time continues from now.
+     */
+    public void stop() {
+        if (mode == RECORD) {
+            data.flip();
+        } else if (mode == REPLAY) {
+            physics.setStepScheduler(savedScheduler);
+            touchReader.stopReplay();
+            physics.start();
+        }
+        frameBegun = false;
+        mode = OFF;
+    }
+
+    /**
+     * Write the recording to a file. Stops recording.
+     *
+     * @param fileHandle FileHandle, of the output file
+     */
+    public void save(FileHandle fileHandle) {
+        stop();
+        byte[] bytes = new byte[data.limit()];
+        data.rewind();
+        data.get(bytes);
+        data.rewind();
+        fileHandle.writeBytes(bytes, false);
+    }
+
+    /**
+     * Begin a frame. Call before updating the touchMover and before physics.advance().
+     * Recording: Gets the real time and the touch. They are recorded at the end of advance.
+     * Replay: Reads the next frame. The touch reader reports its touch.
+     * Stops the replay at the end of the recording.
+     *
+     * @return boolean, false if a replay has ended
+     */
+    public boolean update() {
+        frameBegun = true;
+        switch (mode) {
+            case RECORD:
+                graphicsTime = TimeU.getTime();
+                isTouching = touchReader.isTouching();
+                if (isTouching) {
+                    touchReader.getPosition(touchPosition);      // else keep the last position
+                }
+                return true;
+            case REPLAY:
+                if (data.remaining() < FRAME_BYTES) {
+                    stop();
+                    return false;
+                }
+                graphicsTime = data.getFloat();
+                isTouching = data.get() != 0;
+                touchPosition.x = data.getFloat();
+                touchPosition.y = data.getFloat();
+                gravity.x = data.getFloat();
+                gravity.y = data.getFloat();
+                velocityIterations = data.get();
+                positionIterations = data.get();
+                steps = data.getShort();
+                touchReader.setReplay(isTouching, touchPosition.x, touchPosition.y);
+                frames++;
+                return true;
+            default:
+                graphicsTime = TimeU.getTime();
+                return true;
+        }
+    }
+
+    /**
+     * Called by physics at the beginning of advance. Begins the frame if update() has not been called.
+     * Recording: Gets gravity and iterations of the solver.
+     * Replay: Sets gravity, iterations and step budget of the frame.
+     *
+     * @return float, the graphics time of the frame
+     */
+    float beginAdvance() {
+        if (!frameBegun) {
+            update();
+        }
+        switch (mode) {
+            case RECORD:
+                gravity.set(physics.world.getGravity());
+                velocityIterations = physics.stepScheduler.velocityIterations;
+                positionIterations = physics.stepScheduler.positionIterations;
+                return graphicsTime;
+            case REPLAY:
+                physics.world.setGravity(gravity);
+                replayScheduler.velocityIterations = velocityIterations;
+                replayScheduler.positionIterations = positionIterations;
+                replayScheduler.maxStepsPerFrame = Math.max(1, steps);
+                return graphicsTime;
+            default:
+                return TimeU.getTime();
+        }
+    }
+
+    /**
+     * Called by physics at the end of advance. Recording: Writes the frame with the number of its steps.
+     */
+    void endAdvance() {
+        if (mode == RECORD) {
+            ensureRemaining(FRAME_BYTES);
+            data.putFloat(graphicsTime);
+            data.put((byte) (isTouching ? 1 : 0));
+            data.putFloat(touchPosition.x);
+            data.putFloat(touchPosition.y);
+            data.putFloat(gravity.x);
+            data.putFloat(gravity.y);
+            data.put((byte) velocityIterations);
+            data.put((byte) positionIterations);
+            data.putShort((short) physics.stepScheduler.stepsLastFrame);
+            frames++;
+        }
+        frameBegun = false;
+    }
+
+    /**
+     * Replay all remaining frames as fast as possible, without rendering.
+     * For each frame: update, then the touchMover, then physics.advance.
+     *
+     * @param touchMover TouchMover, for the touches, can be null
+     * @return int, number of replayed frames
+     */
+    public int replayAll(TouchMover touchMover) {
+        int count = 0;
+        while ((mode == REPLAY) && update()) {
+            if (touchMover != null) {
+                touchMover.update();
+            }
+            physics.advance();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,271 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Joint;
+import com.badlogic.gdx.physics.box2d.joints.MouseJoint;
+import com.badlogic.gdx.physics.box2d.joints.PrismaticJoint;
+import com.badlogic.gdx.physics.box2d.joints.RevoluteJoint;
+import com.badlogic.gdx.physics.box2d.joints.WheelJoint;
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The state of all bodies and joints of the world of physics in a compact binary form.
+ * For each body: position and angle, linear and angular velocity, type, awake and active flags.
+ * For each joint: the target of mouse joints, the motor speeds, motor and limit flags and limits of
+ * revolute, prismatic and wheel joints.
+ * Restoring works in place on the same bodies and joints, nothing is rebuilt.
+ * Thus bodies and joints must not be created or destroyed between taking and restoring.
+ * Box2D reuses the objects of destroyed bodies and joints, thus the snapshot compares
+ * the count of changes of physics, not the objects. Use the builders and physics to create and destroy them.
+ * The buffer is reused, taking a snapshot creates no objects once the buffer is large enough.
+ * Take and restore only between world steps. If physics runs on its own thread then use physics.execute.
+ * With an activity culler, the culler decides which bodies are active: Restoring does not set the active flags,
+ * it activates the culled bodies and lets the culler check them again.
+ */
+
+public class PhysicsSnapshot {
+    static final int BODY_BYTES = 6 * 4 + 1;
+    static final int JOINT_BYTES = 3 * 4 + 1;
+    static final BodyDef.BodyType[] BODY_TYPES = BodyDef.BodyType.values();
+    static final int AWAKE = 4;
+    static final int ACTIVE = 8;
+    static final int MOTOR = 1;
+    static final int LIMIT = 2;
+    Physics physics;
+    public ByteBuffer data;
+    public float physicsTime;                // when the snapshot was taken, not restored
+    Body[] bodies = new Body[0];
+    int bodyCount = 0;
+    Joint[] joints = new Joint[0];
+    int jointCount = 0;
+    int worldChanges;                        // of physics when the snapshot was taken
+    private Array<Joint> worldJoints = new Array<Joint>(true, 16, Joint.class);
+    private Vector2 vector = new Vector2();
+
+    /**
+     * Create an empty snapshot for physics.
+     *
+     * @param physics Physics, with its world
+     */
+    public PhysicsSnapshot(Physics physics) {
+        this.physics = physics;
+        data = ByteBuffer.allocate(256);
+    }
+
+    /**
+     * Make the buffer larger if needed. Its data is lost.
+     *
+     * @param bytes int, required number of bytes
+     */
+    private void ensureCapacity(int bytes) {
+        if (data.capacity() < bytes) {
+            data = ByteBuffer.allocate(Math.max(bytes, 2 * data.capacity()));
+        }
+    }
+
+    /**
+     * Save the state of all bodies and joints of the world.
+     */
+    public void take() {
+        physics.updateBodies();
+        bodyCount = physics.bodies.size;
+        if (bodies.length < bodyCount) {
+            bodies = new Body[Math.max(bodyCount, 2 * bodies.length)];
+        }
+        System.arraycopy(physics.bodies.items, 0, bodies, 0, bodyCount);
+        physics.world.getJoints(worldJoints);
+        jointCount = worldJoints.size;
+        if (joints.length < jointCount) {
+            joints = new Joint[Math.max(jointCount, 2 * joints.length)];
+        }
+        System.arraycopy(worldJoints.items, 0, joints, 0, jointCount);
+        worldJoints.clear();
+        ensureCapacity(BODY_BYTES * bodyCount + JOINT_BYTES * jointCount);
+        data.clear();
+        for (int i = 0; i < bodyCount; i++) {
+            putBody(bodies[i]);
+        }
+        for (int i = 0; i < jointCount; i++) {
+            putJoint(joints[i]);
+        }
+        data.flip();
+        physicsTime = physics.physicsTime;
+        worldChanges = physics.worldChanges;
+    }
+
+    /**
+     * Write the state of a body into the buffer.
+     *
+     * @param body Body
+     */
+    private void putBody(Body body) {
+        Vector2 position = body.getPosition();
+        data.putFloat(position.x);
+        data.putFloat(position.y);
+        data.putFloat(body.getAngle());
+        Vector2 velocity = body.getLinearVelocity();
+        data.putFloat(velocity.x);
+        data.putFloat(velocity.y);
+        data.putFloat(body.getAngularVelocity());
+        int flags = body.getType().ordinal();
+        if (body.isAwake()) {
+            flags |= AWAKE;
+        }
+        if (body.isActive()) {
+            flags |= ACTIVE;
+        }
+        data.put((byte) flags);
+    }
+
+    /**
+     * Write the state of a joint into the buffer. Joints without changing state get zeros.
+     *
+     * @param joint Joint
+     */
+    private void putJoint(Joint joint) {
+        float a = 0, b = 0, c = 0;
+        int flags = 0;
+        if (joint instanceof MouseJoint) {
+            Vector2 target = ((MouseJoint) joint).getTarget();
+            a = target.x;
+            b = target.y;
+        } else if (joint instanceof RevoluteJoint) {
+            RevoluteJoint revoluteJoint = (RevoluteJoint) joint;
+            a = revoluteJoint.getMotorSpeed();
+            b = revoluteJoint.getLowerLimit();
+            c = revoluteJoint.getUpperLimit();
+            flags = (revoluteJoint.isMotorEnabled() ? MOTOR : 0) | (revoluteJoint.isLimitEnabled() ? LIMIT : 0);
+        } else if (joint instanceof PrismaticJoint) {
+            PrismaticJoint prismaticJoint = (PrismaticJoint) joint;
+            a = prismaticJoint.getMotorSpeed();
+            b = prismaticJoint.getLowerLimit();
+            c = prismaticJoint.getUpperLimit();
+            flags = (prismaticJoint.isMotorEnabled() ? MOTOR : 0) | (prismaticJoint.isLimitEnabled() ? LIMIT : 0);
+        } else if (joint instanceof WheelJoint) {
+            WheelJoint wheelJoint = (WheelJoint) joint;
+            a = wheelJoint.getMotorSpeed();
+            flags = wheelJoint.isMotorEnabled() ? MOTOR : 0;
+        }
+        data.putFloat(a);
+        data.putFloat(b);
+        data.putFloat(c);
+        data.put((byte) flags);
+    }
+
+    /**
+     * Check if the world still has the bodies and joints of the snapshot:
+     * None has been created or destroyed since taking it.
+     *
+     * @return boolean, true if the snapshot can be restored
+     */
+    public boolean matchesWorld() {
+        return (physics.worldChanges == worldChanges) && (physics.world.getBodyCount() == bodyCount)
+                && (physics.world.getJointCount() == jointCount);
+    }
+
+    /**
+     * Restore the state of the bodies and joints. Body followers jump to the new positions, without interpolation.
+     * Nothing happens if bodies or joints have been created or destroyed since taking the snapshot.
+     * An activity culler of physics checks the restored bodies at once.
+     *
+     * @return boolean, true if restored
+     */
+    public boolean restore() {
+        if ((bodyCount == 0 && jointCount == 0) || !matchesWorld()) {
+            return false;
+        }
+        ActivityCuller activityCuller = physics.activityCuller;
+        if (activityCuller != null) {
+            activityCuller.activateAll();
+        }
+        data.rewind();
+        for (int i = 0; i < bodyCount; i++) {
+            getBody(bodies[i], activityCuller == null);
+        }
+        for (int i = 0; i < jointCount; i++) {
+            getJoint(joints[i]);
+        }
+        data.rewind();
+        if (activityCuller != null) {
+            activityCuller.check();
+        }
+        physics.world.clearForces();
+        synchronized (physics.transformsLock) {
+            physics.setPhysicsData();
+            physics.setPhysicsData();                    // previous data equal to current data
+            physics.updateGraphicsData(1);
+        }
+        return true;
+    }
+
+    /**
+     * Read the state of a body from the buffer and set it. Updates the registry of body followers if its type changes.
+     * A follower of a static body is not in the registry and gets its new position here.
+     *
+     * @param body Body
+     * @param setActive boolean, true to restore the active flag, false if an activity culler sets it
+     */
+    private void getBody(Body body, boolean setActive) {
+        float x = data.getFloat();
+        float y = data.getFloat();
+        float angle = data.getFloat();
+        float vx = data.getFloat();
+        float vy = data.getFloat();
+        float omega = data.getFloat();
+        int flags = data.get();
+        BodyDef.BodyType bodyType = BODY_TYPES[flags & 3];
+        if (body.getType() != bodyType) {
+            physics.setBodyType(body, bodyType);
+        }
+        boolean active = (flags & ACTIVE) != 0;
+        if (setActive && (body.isActive() != active)) {
+            body.setActive(active);
+        }
+        body.setTransform(x, y, angle);
+        body.setLinearVelocity(vx, vy);
+        body.setAngularVelocity(omega);
+        body.setAwake((flags & AWAKE) != 0);
+        Object userData = body.getUserData();
+        if ((bodyType == BodyDef.BodyType.StaticBody) && (userData instanceof BodyFollower)) {
+            BodyFollower follower = (BodyFollower) userData;          // not registered, update it here
+            follower.readPositionAngleOfBody();
+            follower.readPositionAngleOfBody();
+            follower.interpolatePositionAngleOfBody(1);
+        }
+    }
+
+    /**
+     * Read the state of a joint from the buffer and set it.
+     *
+     * @param joint Joint
+     */
+    private void getJoint(Joint joint) {
+        float a = data.getFloat();
+        float b = data.getFloat();
+        float c = data.getFloat();
+        int flags = data.get();
+        if (joint instanceof MouseJoint) {
+            ((MouseJoint) joint).setTarget(vector.set(a, b));
+        } else if (joint instanceof RevoluteJoint) {
+            RevoluteJoint revoluteJoint = (RevoluteJoint) joint;
+            revoluteJoint.setMotorSpeed(a);
+            revoluteJoint.setLimits(b, c);
+            revoluteJoint.enableMotor((flags & MOTOR) != 0);
+            revoluteJoint.enableLimit((flags & LIMIT) != 0);
+        } else if (joint instanceof PrismaticJoint) {
+            PrismaticJoint prismaticJoint = (PrismaticJoint) joint;
+            prismaticJoint.setMotorSpeed(a);
+            prismaticJoint.setLimits(b, c);
+            prismaticJoint.enableMotor((flags & MOTOR) != 0);
+            prismaticJoint.enableLimit((flags & LIMIT) != 0);
+        } else if (joint instanceof WheelJoint) {
+            WheelJoint wheelJoint = (WheelJoint) joint;
+            wheelJoint.setMotorSpeed(a);
+            wheelJoint.enableMotor((flags & MOTOR) != 0);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mygdx.game.physics;
+
+/**
+ * A ring buffer of snapshots of physics, taken every few steps, for rewinding.
+ * The oldest snapshot is overwritten when the ring is full. The snapshots and their buffers are reused.
+ * Set it with Physics.setSnapshotRing to take the snapshots automatically after the steps.
+ * Creating or destroying bodies or joints invalidates older snapshots, then the ring is cleared.
+ */
+
+public class PhysicsSnapshotRing {
+    Physics physics;
+    public PhysicsSnapshot[] snapshots;
+    public int interval;                     // number of steps between snapshots
+    int newest = -1;                         // index of the newest snapshot
+    int size = 0;
+    int stepsSinceSnapshot = 0;
+
+    /**
+     * Create the ring with empty snapshots.
+     *
+     * @param physics Physics
+     * @param capacity int, maximum number of snapshots
+     * @param interval int, number of steps between snapshots
+     */
+    public PhysicsSnapshotRing(Physics physics, int capacity, int interval) {
+        this.physics = physics;
+        this.interval = interval;
+        snapshots = new PhysicsSnapshot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            snapshots[i] = new PhysicsSnapshot(physics);
+        }
+    }
+
+    /**
+     * Count a step of physics and take a snapshot if the interval is complete.
+     */
+    public void afterStep() {
+        stepsSinceSnapshot++;
+        if (stepsSinceSnapshot >= interval) {
+            take();
+        }
+    }
+
+    /**
+     * Take a snapshot now, overwriting the oldest one if the ring is full.
+     * Clears the ring if bodies or joints have changed since the last snapshot.
+     *
+     * @return PhysicsSnapshot, the new snapshot
+     */
+    public PhysicsSnapshot take() {
+        if ((size > 0) && !snapshots[newest].matchesWorld()) {
+            clear();
+        }
+        stepsSinceSnapshot = 0;
+        newest = (newest + 1) % snapshots.length;
+        size = Math.min(size + 1, snapshots.length);
+        snapshots[newest].take();
+        return snapshots[newest];
+    }
+
+    /**
+     * Get the number of snapshots.
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get a snapshot.
+     *
+     * @param back int, 0 for the newest snapshot, 1 for the one before, ...
+     * @return PhysicsSnapshot, or null if there is no such snapshot
+     */
+    public PhysicsSnapshot get(int back) {
+        if ((back < 0) || (back >= size)) {
+            return null;
+        }
+        return snapshots[(newest - back + snapshots.length) % snapshots.length];
+    }
+
+    /**
+     * Restore a snapshot and forget the newer ones. Call between steps.
+     * If physics runs on its own thread then use physics.execute.
+     *
+     * @param back int, 0 for the newest snapshot, 1 for the one before, ...
+     * @return boolean, true if restored, false if there is no such snapshot or bodies or joints have changed
+     */
+    public boolean rewind(int back) {
+        PhysicsSnapshot snapshot = get(back);
+        if ((snapshot == null) || !snapshot.restore()) {
+            return false;
+        }
+        newest = (newest - back + snapshots.length) % snapshots.length;
+        size -= back;
+        stepsSinceSnapshot = 0;
+        return true;
+    }
+
+    /**
+     * Forget all snapshots.
+     */
+    public void clear() {
+        newest = -1;
+        size = 0;
+        stepsSinceSnapshot = 0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.mygdx.game.utilities.TimeU;
+
+/**
+ * Advances physics with fixed time steps on its own thread, keeping the physics time ahead of real time.
+ * Uses the step rate, budget and iterations of the step scheduler of physics.
+ * Sleeps until the next time step is due.
+ * Dispose to stop the thread.
+ */
+
+public class PhysicsThread extends Thread implements Disposable {
+    Physics physics;
+    volatile boolean running = true;
+
+    /**
+     * Create the thread for physics. Start it with start().
+     *
+     * @param physics Physics
+     */
+    public PhysicsThread(Physics physics) {
+        super("Physics");
+        this.physics = physics;
+        setDaemon(true);
+    }
+
+    /**
+     * Make time steps until the physics time is ahead of real time. Then sleep.
+     */
+    @Override
+    public void run() {
+        StepScheduler stepScheduler;
+        float time;
+        while (running) {
+            stepScheduler = physics.stepScheduler;
+            time = TimeU.getTime();
+            if (physics.physicsTime <= time) {
+                stepScheduler.beginFrame();
+                float earliestTime = time - stepScheduler.maxTimeInterval;
+                if (physics.physicsTime < earliestTime) {    //prevent spiral of death
+                    stepScheduler.dropSteps((int) ((earliestTime - physics.physicsTime) / stepScheduler.timeStep));
+                    physics.physicsTime = earliestTime;
+                }
+                physics.stepAsynchronous();
+                while (running && (physics.physicsTime <= time)) {
+                    if (stepScheduler.hasBudget()) {
+                        physics.stepAsynchronous();
+                    } else {
+                        int droppedSteps = (int) ((time - physics.physicsTime) / stepScheduler.timeStep) + 1;
+                        stepScheduler.dropSteps(droppedSteps);
+                        physics.physicsTime += droppedSteps * stepScheduler.timeStep;
+                    }
+                }
+                stepScheduler.endFrame();
+            }
+            long sleepNanos = (long) (1e9f * (physics.physicsTime - TimeU.getTime()));
+            if (sleepNanos > 0) {
+                try {
+                    Thread.sleep(sleepNanos / 1000000, (int) (sleepNanos % 1000000));
+                } catch (InterruptedException e) {
+                    if (running) {
+                        Gdx.app.log("***** PhysicsThread", "interrupted");
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop the thread and wait for the end of its last time step.
+     */
+    @Override
+    public void dispose() {
+        running = false;
+        interrupt();
+        try {
+            join();
+        } catch (InterruptedException e) {
+            Gdx.app.log("***** PhysicsThread", "interrupted while stopping");
+        }
+    }
+}
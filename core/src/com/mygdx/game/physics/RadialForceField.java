@@ -0,0 +1,70 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Acceleration pointing towards a center (attractor) or away from it (repeller) inside a circle.
+ * Its strength decreases from the center to zero at the radius with a power law:
+ * strength*(1-distance/radius)^falloff. Use falloff=0 for constant strength.
+ */
+
+public class RadialForceField extends ForceField {
+    public float centerX, centerY;
+    public float radius;
+    public float strength;
+    public float falloff;
+
+    /**
+     * Create a radial field.
+     *
+     * @param centerX float, x-coordinate of the center in pixels
+     * @param centerY float, y-coordinate of the center in pixels
+     * @param radius float, radius of the region of influence in pixels
+     * @param strength float, acceleration at the center in pixels/sec², positive attracts, negative repels
+     * @param falloff float, exponent of the decrease with distance
+     */
+    public RadialForceField(float centerX, float centerY, float radius, float strength, float falloff) {
+        this.strength = strength;
+        this.falloff = falloff;
+        set(centerX, centerY, radius);
+    }
+
+    /**
+     * Set the center and radius. Updates the bounds.
+     *
+     * @param centerX float, x-coordinate of the center in pixels
+     * @param centerY float, y-coordinate of the center in pixels
+     * @param radius float, radius of the region of influence in pixels
+     * @return this, for chaining
+     */
+    public RadialForceField set(float centerX, float centerY, float radius) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.radius = radius;
+        bounds.set(centerX - radius, centerY - radius, 2 * radius, 2 * radius);
+        return this;
+    }
+
+    /**
+     * Add the acceleration towards the center.
+     *
+     * @param acceleration Vector2, in pixels/sec², add to it
+     * @param x float, x-coordinate of the position in pixels
+     * @param y float, y-coordinate of the position in pixels
+     */
+    @Override
+    public void addAcceleration(Vector2 acceleration, float x, float y) {
+        float dx = centerX - x;
+        float dy = centerY - y;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if ((distance < radius) && (distance > 0)) {
+            float a = strength;
+            if (falloff != 0) {
+                a *= (float) Math.pow(1 - distance / radius, falloff);
+            }
+            a /= distance;
+            acceleration.x += a * dx;
+            acceleration.y += a * dy;
+        }
+    }
+}
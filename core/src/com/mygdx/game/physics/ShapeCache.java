@@ -0,0 +1,77 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.math.Shape2D;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IdentityMap;
+
+/**
+ * Box2D shapes converted from Shape2D shapes, keyed by the Shape2D instance.
+ * Building many fixtures of the same Shape2D object converts it only once.
+ * The shapes depend on Physics.PIXELS_PER_METER. If it changes, then all shapes are disposed and converted again.
+ * Attention: Do not change a cached Shape2D object. Or remove it from the cache before building new fixtures.
+ * Physics disposes the cache with its device.
+ */
+
+public class ShapeCache implements Disposable {
+    private IdentityMap<Shape2D, Shape> shapes;
+    private float scale;                          // PIXELS_PER_METER of the shapes
+
+    /**
+     * Create an empty cache.
+     */
+    public ShapeCache() {
+        shapes = new IdentityMap<Shape2D, Shape>();
+        scale = Physics.PIXELS_PER_METER;
+    }
+
+    /**
+     * Get the box2D shape for a Shape2D shape. Converts it if not already done.
+     * Do not dispose it.
+     *
+     * @param shape2D Shape2D, not a Shape2DCollection
+     * @return Shape (box2D)
+     */
+    public Shape get(Shape2D shape2D) {
+        if (scale != Physics.PIXELS_PER_METER) {
+            clear();
+            scale = Physics.PIXELS_PER_METER;
+        }
+        Shape shape = shapes.get(shape2D);
+        if (shape == null) {
+            shape = Box2DShape.ofShape2D(shape2D);
+            shapes.put(shape2D, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * Remove a Shape2D shape and dispose its box2D shape. Call after changing the Shape2D shape.
+     *
+     * @param shape2D Shape2D
+     */
+    public void remove(Shape2D shape2D) {
+        Shape shape = shapes.remove(shape2D);
+        if (shape != null) {
+            shape.dispose();
+        }
+    }
+
+    /**
+     * Dispose all box2D shapes and empty the cache.
+     */
+    public void clear() {
+        for (Shape shape : shapes.values()) {
+            shape.dispose();
+        }
+        shapes.clear();
+    }
+
+    /**
+     * Dispose all box2D shapes.
+     */
+    @Override
+    public void dispose() {
+        clear();
+    }
+}
@@ -0,0 +1,155 @@
+package com.mygdx.game.physics;
+
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Decides how physics advances with fixed time steps: the step rate, how many steps a frame may do
+ * and the iterations of the solver. Counts the steps that had to be dropped.
+ * Each frame has a budget of steps and of time in nanoseconds. If the budget is used up then
+ * the remaining steps are dropped and physics slows down instead of spiraling down.
+ * With adaptive iterations the solver uses less iterations under load and more if there is time left.
+ * Override its methods for other strategies and set it with Physics.setStepScheduler.
+ */
+
+public class StepScheduler {
+    public float timeStep = Physics.TIME_STEP;
+    public float maxTimeInterval = 0.25f;          // physics does not go further back in time
+    public int maxStepsPerFrame = 16;
+    public long maxNanosPerFrame = Long.MAX_VALUE;
+    public int velocityIterations, positionIterations;
+    public int maxVelocityIterations = 8;
+    public int minVelocityIterations = 3;
+    public int maxPositionIterations = 3;
+    public int minPositionIterations = 1;
+    public boolean adaptiveIterations = false;
+    public float relaxedLoad = 0.5f;                // fraction of time budget, below more iterations are possible
+    public int relaxedFramesToRaise = 30;           // number of relaxed frames before raising iterations
+    public int droppedSteps = 0;                    // total number of dropped steps
+    public int droppedStepsLastFrame = 0;
+    public int stepsLastFrame = 0;
+    long frameStartNanos;
+    int relaxedFrames = 0;
+
+    /**
+     * Create a scheduler with the default step rate of 60 per second and maximum iterations.
+     */
+    public StepScheduler() {
+        velocityIterations = maxVelocityIterations;
+        positionIterations = maxPositionIterations;
+    }
+
+    /**
+     * Set the number of steps per second.
+     *
+     * @param stepsPerSecond float
+     * @return this, for chaining
+     */
+    public StepScheduler setStepRate(float stepsPerSecond) {
+        timeStep = 1f / stepsPerSecond;
+        return this;
+    }
+
+    /**
+     * Set the budget for each frame.
+     *
+     * @param maxSteps int, maximum number of steps in a frame
+     * @param maxNanos long, maximum time for steps in a frame in nanoseconds
+     * @return this, for chaining
+     */
+    public StepScheduler setBudget(int maxSteps, long maxNanos) {
+        maxStepsPerFrame = maxSteps;
+        maxNanosPerFrame = maxNanos;
+        return this;
+    }
+
+    /**
+     * Set the limits for iterations of the solver and if the iterations adapt to the load.
+     * Without adaptation the solver uses the maximum iterations.
+     *
+     * @param minVelocity int, minimum of velocity iterations
+     * @param maxVelocity int, maximum of velocity iterations
+     * @param minPosition int, minimum of position iterations
+     * @param maxPosition int, maximum of position iterations
+     * @param adaptive boolean, true for adaptive iterations
+     * @return this, for chaining
+     */
+    public StepScheduler setIterations(int minVelocity, int maxVelocity, int minPosition, int maxPosition,
+                                       boolean adaptive) {
+        minVelocityIterations = minVelocity;
+        maxVelocityIterations = maxVelocity;
+        minPositionIterations = minPosition;
+        maxPositionIterations = maxPosition;
+        adaptiveIterations = adaptive;
+        velocityIterations = maxVelocity;
+        positionIterations = maxPosition;
+        return this;
+    }
+
+    /**
+     * Start a frame that needs steps. Resets the budget.
+     */
+    public void beginFrame() {
+        frameStartNanos = TimeUtils.nanoTime();
+        stepsLastFrame = 0;
+        droppedStepsLastFrame = 0;
+    }
+
+    /**
+     * Check if there is budget left for a catch up step.
+     * The last step of a frame is always done.
+     *
+     * @return boolean, true if a step may be done
+     */
+    public boolean hasBudget() {
+        return (stepsLastFrame < maxStepsPerFrame - 1)
+                && (TimeUtils.nanoTime() - frameStartNanos < maxNanosPerFrame);
+    }
+
+    /**
+     * Register that a step has been done.
+     */
+    public void countStep() {
+        stepsLastFrame++;
+    }
+
+    /**
+     * Register that steps have been dropped.
+     *
+     * @param n int, number of dropped steps
+     */
+    public void dropSteps(int n) {
+        droppedStepsLastFrame += n;
+        droppedSteps += n;
+    }
+
+    /**
+     * End a frame with steps. Adapts the iterations if required:
+     * Less iterations if steps were dropped or the time budget was used up.
+     * More iterations after some frames that used little of the time budget.
+     */
+    public void endFrame() {
+        if (adaptiveIterations) {
+            long nanos = TimeUtils.nanoTime() - frameStartNanos;
+            if ((droppedStepsLastFrame > 0) || (nanos >= maxNanosPerFrame)) {
+                relaxedFrames = 0;
+                if (velocityIterations > minVelocityIterations) {
+                    velocityIterations--;
+                } else if (positionIterations > minPositionIterations) {
+                    positionIterations--;
+                }
+            } else if (nanos < relaxedLoad * maxNanosPerFrame) {
+                relaxedFrames++;
+                if (relaxedFrames >= relaxedFramesToRaise) {
+                    relaxedFrames = 0;
+                    if (positionIterations < maxPositionIterations) {
+                        positionIterations++;
+                    } else if (velocityIterations < maxVelocityIterations) {
+                        velocityIterations++;
+                    }
+                }
+            } else {
+                relaxedFrames = 0;
+            }
+        }
+    }
+}
@@ -7,10 +7,12 @@ import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.DistanceFieldFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.EarClippingTriangulator;
@@ -43,6 +45,7 @@ public class Device implements Disposable,Resizable {
     public Disposer disposer;
     public SpriteBatch spriteBatch;
     public BitmapFont bitmapFont;
+    public ShaderProgram distanceFieldShader;
     public Shape2DRenderer shape2DRenderer;
     public EarClippingTriangulator triangulator;
     public Accelerometer accelerometer;
@@ -239,6 +242,22 @@ public class Device implements Disposable,Resizable {
         return bitmapFont;
     }
 
+    /**
+     * Create the shader for sprites with distance fields, as for distance field fonts. Add to the disposer.
+     *
+     * @return the distanceFieldShader
+     */
+    public ShaderProgram createDistanceFieldShader() {
+        if (distanceFieldShader == null) {
+            distanceFieldShader = DistanceFieldFont.createDistanceFieldShader();
+            if (!distanceFieldShader.isCompiled()) {
+                throw new IllegalArgumentException("Distance field shader: " + distanceFieldShader.getLog());
+            }
+            disposer.add(distanceFieldShader, "device distanceFieldShader");
+        }
+        return distanceFieldShader;
+    }
+
     /**
      * Create an extended shapeRenderer for debugging shape2D's. Add to disposer.
      *
@@ -9,12 +9,16 @@ import static com.badlogic.gdx.Gdx.input;
 /**
  * Simplifies reading touch or mouse. Un-projects the position.
  * Limits the mouse position to the application window.
+ * For replays, the touch can be set from a recording instead of the input.
  */
 
 public class TouchReader implements Resizable {
 
     public Device device;
     private int screenWidth, screenHeight;
+    public boolean isReplaying = false;
+    private boolean replayTouching = false;
+    private float replayX, replayY;
 
     /**
      * TouchReader has access to device for the actual camera.
@@ -66,6 +70,10 @@ public class TouchReader implements Resizable {
      * @param position Vector2 object, will be set to position.
      */
     public void getPosition(Vector2 position) {
+        if (isReplaying) {
+            position.set(replayX, replayY);
+            return;
+        }
         position.set(getXLimited(), getYLimited());
         device.unproject(position);
     }
@@ -78,6 +86,30 @@ public class TouchReader implements Resizable {
      * @return boolean, true if the screen/window has been touched
      */
     public boolean isTouching() {
+        if (isReplaying) {
+            return replayTouching;
+        }
         return input.isTouched() && input.isButtonPressed(Input.Buttons.LEFT)&& touchIsOnScreen();
     }
+
+    /**
+     * Set the touch from a recording instead of reading the input. Call stopReplay to read the input again.
+     *
+     * @param isTouching boolean, true if the screen/window has been touched
+     * @param x float, x-coordinate of the touch position in the world
+     * @param y float, y-coordinate of the touch position in the world
+     */
+    public void setReplay(boolean isTouching, float x, float y) {
+        isReplaying = true;
+        replayTouching = isTouching;
+        replayX = x;
+        replayY = y;
+    }
+
+    /**
+     * Read the touch from the input again.
+     */
+    public void stopReplay() {
+        isReplaying = false;
+    }
 }